@@ -37,6 +37,7 @@ dependencies {
     compileOnly(libs.mmoitems)
     compileOnly(libs.score)
     compileOnly(libs.sig)
+    compileOnly(libs.luckperms)
 
     compileOnly(libs.papi)
 
@@ -50,6 +51,11 @@ dependencies {
     implementation(libs.minelib.scheduler.canceller)
 
     compileOnly("org.jetbrains:annotations:23.0.0")
+
+    testImplementation(libs.spigot)
+    testImplementation(libs.junit.jupiter)
+    testRuntimeOnly(libs.junit.platform.launcher)
+    testCompileOnly("org.jetbrains:annotations:23.0.0")
 }
 
 tasks {
@@ -67,6 +73,10 @@ tasks {
         disableAutoTargetJvm()
     }
 
+    test {
+        useJUnitPlatform()
+    }
+
     processResources {
         filesMatching("plugin.yml") {
             expand("version" to rootProject.version)
@@ -1,5 +1,6 @@
 package com.extendedclip.deluxemenus;
 
+import com.extendedclip.deluxemenus.cache.PermissionCache;
 import com.extendedclip.deluxemenus.cache.SimpleCache;
 import com.extendedclip.deluxemenus.command.DeluxeMenusCommand;
 import com.extendedclip.deluxemenus.config.DeluxeMenusConfig;
@@ -9,12 +10,18 @@ import com.extendedclip.deluxemenus.dupe.MenuItemMarker;
 import com.extendedclip.deluxemenus.hooks.*;
 import com.extendedclip.deluxemenus.listener.PlayerListener;
 import com.extendedclip.deluxemenus.menu.Menu;
+import com.extendedclip.deluxemenus.menu.MenuUpdateScheduler;
 import com.extendedclip.deluxemenus.menu.MenuItem;
 import com.extendedclip.deluxemenus.menu.options.HeadType;
 import com.extendedclip.deluxemenus.menu.options.MenuOptions;
 import com.extendedclip.deluxemenus.nbt.NbtProvider;
 import com.extendedclip.deluxemenus.persistentmeta.PersistentMetaHandler;
 import com.extendedclip.deluxemenus.placeholder.Expansion;
+import com.extendedclip.deluxemenus.placeholder.PlaceholderCache;
+import com.extendedclip.deluxemenus.placeholder.PlaceholderProfiler;
+import com.extendedclip.deluxemenus.requirement.RequirementCosts;
+import com.extendedclip.deluxemenus.requirement.RequirementPlanner;
+import com.extendedclip.deluxemenus.requirement.javascript.ScriptEnginePool;
 import com.extendedclip.deluxemenus.updatechecker.UpdateChecker;
 import com.extendedclip.deluxemenus.utils.DebugLevel;
 import com.extendedclip.deluxemenus.utils.Messages;
@@ -51,6 +58,14 @@ public class DeluxeMenus extends JavaPlugin {
     private final GeneralConfig generalConfig = new GeneralConfig(this);
     private PersistentMetaHandler persistentMetaHandler;
     private MenuItemMarker menuItemMarker;
+    private MenuUpdateScheduler menuUpdateScheduler;
+    private PlaceholderCache placeholderCache;
+    private PlaceholderProfiler placeholderProfiler;
+    private ScriptEnginePool scriptEnginePool;
+    private RequirementCosts requirementCosts;
+    private RequirementPlanner requirementPlanner;
+    private PermissionCache permissionCache;
+    private Expansion expansion;
     private BukkitAudiences audiences;
     private VaultHook vaultHook;
     private ItemStack head;
@@ -91,7 +106,18 @@ public class DeluxeMenus extends JavaPlugin {
 
         this.audiences = BukkitAudiences.create(this);
 
+        this.menuUpdateScheduler = new MenuUpdateScheduler(this);
+        this.menuUpdateScheduler.start();
+
+        this.placeholderCache = new PlaceholderCache(this);
+        this.placeholderProfiler = new PlaceholderProfiler(this);
+        this.scriptEnginePool = new ScriptEnginePool(this);
+        this.requirementCosts = new RequirementCosts(this);
+        this.requirementPlanner = new RequirementPlanner(this);
+        this.permissionCache = new PermissionCache(this);
+
         hookIntoVault();
+        hookIntoLuckPerms();
         setUpItemHooks();
 
         this.menuConfig = new DeluxeMenusConfig(this);
@@ -105,7 +131,8 @@ public class DeluxeMenus extends JavaPlugin {
         if (!new DeluxeMenusCommand(this).register()) {
             debug(DebugLevel.HIGHEST, Level.SEVERE, "Could not register the DeluxeMenus command!");
         }
-        new Expansion(this).register();
+        this.expansion = new Expansion(this);
+        this.expansion.register();
 
         setUpBungeeCordMessaging();
         setUpUpdateChecker();
@@ -116,6 +143,10 @@ public class DeluxeMenus extends JavaPlugin {
     public void onDisable() {
         Bukkit.getMessenger().unregisterOutgoingPluginChannel(this, "BungeeCord");
 
+        if (this.menuUpdateScheduler != null) {
+            this.menuUpdateScheduler.stop();
+        }
+
         TaskCanceller.get(this).cancelAll();
 
         if (this.audiences != null) {
@@ -185,6 +216,34 @@ public class DeluxeMenus extends JavaPlugin {
         this.getLogger().log(level, String.join(System.lineSeparator(), messages));
     }
 
+    public MenuUpdateScheduler getMenuUpdateScheduler() {
+        return menuUpdateScheduler;
+    }
+
+    public PlaceholderCache getPlaceholderCache() {
+        return placeholderCache;
+    }
+
+    public PlaceholderProfiler getPlaceholderProfiler() {
+        return placeholderProfiler;
+    }
+
+    public ScriptEnginePool getScriptEnginePool() {
+        return scriptEnginePool;
+    }
+
+    public RequirementCosts getRequirementCosts() {
+        return requirementCosts;
+    }
+
+    public RequirementPlanner getRequirementPlanner() {
+        return requirementPlanner;
+    }
+
+    public PermissionCache getPermissionCache() {
+        return permissionCache;
+    }
+
     public MenuItemMarker getMenuItemMarker() {
         return menuItemMarker;
     }
@@ -210,6 +269,15 @@ public class DeluxeMenus extends JavaPlugin {
 
     public void clearCaches() {
         itemHooks.values().stream().filter(Objects::nonNull).filter(hook -> hook instanceof SimpleCache).map(hook -> (SimpleCache) hook).forEach(SimpleCache::clearCache);
+        Menu.getAllMenus().stream().flatMap(menu -> menu.getMenuItems().values().stream()).flatMap(items -> items.values().stream()).forEach(SimpleCache::clearCache);
+        placeholderCache.clearCache();
+        permissionCache.clearCache();
+        if (vaultHook != null) {
+            vaultHook.clearCache();
+        }
+        if (expansion != null) {
+            expansion.clearCache();
+        }
     }
 
     public void reload() {
@@ -235,7 +303,7 @@ public class DeluxeMenus extends JavaPlugin {
         if (!Bukkit.getPluginManager().isPluginEnabled("Vault")) {
             return;
         }
-        this.vaultHook = new VaultHook();
+        this.vaultHook = new VaultHook(this);
 
         if (this.vaultHook.hooked()) {
             this.debug(DebugLevel.HIGHEST, Level.INFO, "Successfully hooked into Vault!");
@@ -246,6 +314,20 @@ public class DeluxeMenus extends JavaPlugin {
                 "DeluxeMenus will continue to work but some features (such as the 'has money' requirement) may not be available.");
     }
 
+    private void hookIntoLuckPerms() {
+        if (!Bukkit.getPluginManager().isPluginEnabled("LuckPerms")) {
+            return;
+        }
+
+        if (new LuckPermsHook(this).register()) {
+            this.debug(DebugLevel.HIGHEST, Level.INFO, "Successfully hooked into LuckPerms!");
+            return;
+        }
+
+        this.debug(DebugLevel.HIGHEST, Level.WARNING, "Could not hook into LuckPerms!",
+                "Cached permission results will only be refreshed when they expire.");
+    }
+
     @SuppressWarnings("deprecation")
     private void setUpItemHooks() {
         if (!VersionHelper.IS_ITEM_LEGACY) {
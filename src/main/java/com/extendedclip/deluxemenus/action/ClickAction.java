@@ -1,6 +1,7 @@
 package com.extendedclip.deluxemenus.action;
 
 import com.extendedclip.deluxemenus.menu.MenuHolder;
+import com.extendedclip.deluxemenus.utils.StringTemplate;
 import com.google.common.primitives.Doubles;
 import com.google.common.primitives.Longs;
 import java.util.concurrent.ThreadLocalRandom;
@@ -11,12 +12,16 @@ public class ClickAction {
 
   private ActionType type;
   private String executable;
+  private StringTemplate executableTemplate;
+  private ComponentTemplate componentTemplate;
   private String delay;
   private String chance;
 
   public ClickAction(@NotNull final ActionType type, @NotNull final String executable) {
     this.type = type;
     this.executable = executable;
+    this.executableTemplate = StringTemplate.compile(executable);
+    this.componentTemplate = ComponentTemplate.compile(type, this.executableTemplate);
 
     this.delay = null;
     this.chance = null;
@@ -38,6 +43,7 @@ public class ClickAction {
    */
   public void setType(@NotNull final ActionType type) {
     this.type = type;
+    this.componentTemplate = ComponentTemplate.compile(type, this.executableTemplate);
   }
 
   /**
@@ -56,6 +62,26 @@ public class ClickAction {
    */
   public void setExecutable(@NotNull String executable) {
     this.executable = executable;
+    this.executableTemplate = StringTemplate.compile(executable);
+    this.componentTemplate = ComponentTemplate.compile(this.type, this.executableTemplate);
+  }
+
+  /**
+   * Get the executable of this action, compiled into a {@link StringTemplate}.
+   *
+   * @return the compiled executable
+   */
+  public @NotNull StringTemplate getExecutableTemplate() {
+    return executableTemplate;
+  }
+
+  /**
+   * Get the executable of this action, parsed into a component. Only available for MiniMessage and JSON actions.
+   *
+   * @return the parsed executable, or null if the executable can't be parsed ahead of time
+   */
+  public @Nullable ComponentTemplate getComponentTemplate() {
+    return componentTemplate;
   }
 
   /**
@@ -8,15 +8,18 @@ import com.extendedclip.deluxemenus.utils.AdventureUtils;
 import com.extendedclip.deluxemenus.utils.DebugLevel;
 import com.extendedclip.deluxemenus.utils.ExpUtils;
 import com.extendedclip.deluxemenus.utils.SoundUtils;
+import com.extendedclip.deluxemenus.utils.StringTemplate;
 import com.extendedclip.deluxemenus.utils.StringUtils;
 import com.extendedclip.deluxemenus.utils.VersionHelper;
 import io.github.projectunified.minelib.scheduler.global.GlobalScheduler;
+import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import org.bukkit.Bukkit;
 import org.bukkit.Sound;
 import org.bukkit.entity.Player;
 import org.bukkit.event.player.PlayerCommandPreprocessEvent;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.logging.Level;
@@ -26,7 +29,8 @@ public class ClickActionTask implements Runnable {
     private final DeluxeMenus plugin;
     private final UUID uuid;
     private final ActionType actionType;
-    private final String exec;
+    private final StringTemplate exec;
+    private final ComponentTemplate componentTemplate;
     // Ugly hack to get around the fact that arguments are not available at task execution time
     private final Map<String, String> arguments;
     private final boolean parsePlaceholdersInArguments;
@@ -40,11 +44,48 @@ public class ClickActionTask implements Runnable {
             @NotNull final Map<String, String> arguments,
             final boolean parsePlaceholdersInArguments,
             final boolean parsePlaceholdersAfterArguments
+    ) {
+        this(plugin, uuid, actionType, StringTemplate.compile(exec), arguments, parsePlaceholdersInArguments, parsePlaceholdersAfterArguments);
+    }
+
+    public ClickActionTask(
+            @NotNull final DeluxeMenus plugin,
+            @NotNull final UUID uuid,
+            @NotNull final ClickAction action,
+            @NotNull final Map<String, String> arguments,
+            final boolean parsePlaceholdersInArguments,
+            final boolean parsePlaceholdersAfterArguments
+    ) {
+        this(plugin, uuid, action.getType(), action.getExecutableTemplate(), action.getComponentTemplate(), arguments, parsePlaceholdersInArguments, parsePlaceholdersAfterArguments);
+    }
+
+    public ClickActionTask(
+            @NotNull final DeluxeMenus plugin,
+            @NotNull final UUID uuid,
+            @NotNull final ActionType actionType,
+            @NotNull final StringTemplate exec,
+            @NotNull final Map<String, String> arguments,
+            final boolean parsePlaceholdersInArguments,
+            final boolean parsePlaceholdersAfterArguments
+    ) {
+        this(plugin, uuid, actionType, exec, null, arguments, parsePlaceholdersInArguments, parsePlaceholdersAfterArguments);
+    }
+
+    private ClickActionTask(
+            @NotNull final DeluxeMenus plugin,
+            @NotNull final UUID uuid,
+            @NotNull final ActionType actionType,
+            @NotNull final StringTemplate exec,
+            @Nullable final ComponentTemplate componentTemplate,
+            @NotNull final Map<String, String> arguments,
+            final boolean parsePlaceholdersInArguments,
+            final boolean parsePlaceholdersAfterArguments
     ) {
         this.plugin = plugin;
         this.uuid = uuid;
         this.actionType = actionType;
         this.exec = exec;
+        this.componentTemplate = componentTemplate;
         this.arguments = arguments;
         this.parsePlaceholdersInArguments = parsePlaceholdersInArguments;
         this.parsePlaceholdersAfterArguments = parsePlaceholdersAfterArguments;
@@ -63,13 +104,16 @@ public class ClickActionTask implements Runnable {
                 : player;
 
 
-        final String executable = StringUtils.replacePlaceholdersAndArguments(
-                this.exec,
+        final StringTemplate.Resolver resolver = StringTemplate.resolver(
                 this.arguments,
                 target,
                 this.parsePlaceholdersInArguments,
                 this.parsePlaceholdersAfterArguments);
 
+        // Actions with a parsed component need the resolved values on their own to fill in the component.
+        final String[] values = this.componentTemplate != null ? this.exec.resolveValues(resolver) : null;
+        final String executable = values != null ? this.exec.join(index -> values[index]) : this.exec.render(resolver);
+
         switch (actionType) {
             case META:
                 if (!VersionHelper.IS_PDC_VERSION || plugin.getPersistentMetaHandler() == null) {
@@ -103,7 +147,10 @@ public class ClickActionTask implements Runnable {
                 break;
 
             case PLACEHOLDER:
-                holder.ifPresent(it -> it.setPlaceholders(executable));
+                // Resolved for its side effects, so it must never be answered from the placeholder cache.
+                if (holder.isPresent()) {
+                    StringUtils.replacePlaceholders(executable, target);
+                }
                 break;
 
             case CHAT:
@@ -115,11 +162,11 @@ public class ClickActionTask implements Runnable {
                 break;
 
             case MINI_MESSAGE:
-                plugin.audiences().player(player).sendMessage(MiniMessage.miniMessage().deserialize(executable));
+                plugin.audiences().player(player).sendMessage(toComponent(values, executable, false));
                 break;
 
             case MINI_BROADCAST:
-                plugin.audiences().all().sendMessage(MiniMessage.miniMessage().deserialize(executable));
+                plugin.audiences().all().sendMessage(toComponent(values, executable, false));
                 break;
 
             case MESSAGE:
@@ -271,12 +318,12 @@ public class ClickActionTask implements Runnable {
                 break;
 
             case JSON_MESSAGE:
-                AdventureUtils.sendJson(plugin, player, executable);
+                plugin.audiences().player(player).sendMessage(toComponent(values, executable, true));
                 break;
 
             case JSON_BROADCAST:
             case BROADCAST_JSON:
-                plugin.audiences().all().sendMessage(AdventureUtils.fromJson(executable));
+                plugin.audiences().all().sendMessage(toComponent(values, executable, true));
                 break;
 
             case REFRESH:
@@ -289,6 +336,8 @@ public class ClickActionTask implements Runnable {
                     break;
                 }
 
+                plugin.getPlaceholderCache().invalidate(player.getUniqueId());
+                plugin.getPlaceholderCache().invalidate(target.getUniqueId());
                 holder.get().refreshMenu();
                 break;
 
@@ -300,6 +349,7 @@ public class ClickActionTask implements Runnable {
 
                 try {
                     plugin.getVault().takeMoney(player, Double.parseDouble(executable));
+                    plugin.getPlaceholderCache().invalidate(player.getUniqueId());
                 } catch (final NumberFormatException exception) {
                     plugin.debug(
                             DebugLevel.HIGHEST,
@@ -317,6 +367,7 @@ public class ClickActionTask implements Runnable {
 
                 try {
                     plugin.getVault().giveMoney(player, Double.parseDouble(executable));
+                    plugin.getPlaceholderCache().invalidate(player.getUniqueId());
                 } catch (final NumberFormatException exception) {
                     plugin.debug(
                             DebugLevel.HIGHEST,
@@ -369,6 +420,7 @@ public class ClickActionTask implements Runnable {
                 }
 
                 plugin.getVault().givePermission(player, executable);
+                plugin.getPermissionCache().invalidate(player.getUniqueId());
                 break;
 
             case TAKE_PERM:
@@ -381,6 +433,7 @@ public class ClickActionTask implements Runnable {
                 }
 
                 plugin.getVault().takePermission(player, executable);
+                plugin.getPermissionCache().invalidate(player.getUniqueId());
                 break;
 
             case BROADCAST_SOUND:
@@ -471,6 +524,18 @@ public class ClickActionTask implements Runnable {
         }
     }
 
+    private @NotNull Component toComponent(final @NotNull String @Nullable [] values, final @NotNull String executable,
+                                           final boolean json) {
+        if (this.componentTemplate != null && values != null) {
+            final Component component = this.componentTemplate.render(values);
+            if (component != null) {
+                return component;
+            }
+        }
+
+        return json ? AdventureUtils.fromJson(executable) : MiniMessage.miniMessage().deserialize(executable);
+    }
+
     public void runTaskLater(DeluxeMenus plugin, long delay) {
         GlobalScheduler.get(plugin).runLater(this, delay);
     }
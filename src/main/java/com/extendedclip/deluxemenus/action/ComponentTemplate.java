@@ -0,0 +1,177 @@
+package com.extendedclip.deluxemenus.action;
+
+import com.extendedclip.deluxemenus.utils.AdventureUtils;
+import com.extendedclip.deluxemenus.utils.StringTemplate;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TextReplacementConfig;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The executable of a MiniMessage or JSON action, parsed into a {@link Component} once instead of every time the
+ * action runs.
+ * <br>
+ * Executables without arguments or placeholders are parsed as they are. In other executables, each argument and
+ * placeholder is replaced by a marker before parsing, and the markers are replaced by the resolved values when the
+ * action runs. This is only done when the result is the same as parsing the resolved executable: every marker must
+ * end up in plain text, and the resolved values must not contain any MiniMessage or JSON syntax. Otherwise
+ * {@link #render(String[])} returns null and the resolved executable has to be parsed.
+ */
+public final class ComponentTemplate {
+
+    private static final char MARKER_START = '\uE000';
+    private static final char MARKER_END = '\uE001';
+    private static final Pattern MARKER_PATTERN = Pattern.compile(MARKER_START + "(\\d+)" + MARKER_END);
+
+    private final boolean json;
+    private final Component component;
+    private final int markers;
+
+    private ComponentTemplate(final boolean json, final @NotNull Component component, final int markers) {
+        this.json = json;
+        this.component = component;
+        this.markers = markers;
+    }
+
+    /**
+     * Parse the executable of an action.
+     *
+     * @param type     the type of the action
+     * @param template the executable of the action
+     * @return the parsed executable, or null if the action does not send a component or the executable can not be
+     * parsed ahead of time
+     */
+    public static @Nullable ComponentTemplate compile(final @NotNull ActionType type, final @NotNull StringTemplate template) {
+        final boolean json;
+        switch (type) {
+            case MINI_MESSAGE:
+            case MINI_BROADCAST:
+                json = false;
+                break;
+            case JSON_MESSAGE:
+            case JSON_BROADCAST:
+            case BROADCAST_JSON:
+                json = true;
+                break;
+            default:
+                return null;
+        }
+
+        if (!template.isSegmented() || template.raw().indexOf(MARKER_START) != -1) {
+            return null;
+        }
+
+        final String source = template.join(index -> String.valueOf(MARKER_START) + index + MARKER_END);
+        final int markers = count(MARKER_PATTERN.matcher(source));
+
+        if (!json && markerInsideTag(source)) {
+            return null;
+        }
+
+        final Component component;
+        try {
+            component = json ? AdventureUtils.fromJson(source) : MiniMessage.miniMessage().deserialize(source);
+        } catch (final Exception exception) {
+            // Invalid executables are reported when the action runs.
+            return null;
+        }
+
+        if (countMarkers(component) != markers) {
+            return null;
+        }
+
+        return new ComponentTemplate(json, component, markers);
+    }
+
+    /**
+     * Get the component of the action.
+     *
+     * @param values the resolved arguments and placeholders of the executable, see
+     *               {@link StringTemplate#resolveValues(StringTemplate.Resolver)}
+     * @return the component, or null if the resolved values can not be inserted into the parsed executable
+     */
+    public @Nullable Component render(final @NotNull String @NotNull [] values) {
+        if (markers == 0) {
+            return component;
+        }
+
+        if (values.length != markers) {
+            return null;
+        }
+
+        for (final String value : values) {
+            if (!isPlainText(value)) {
+                return null;
+            }
+        }
+
+        return component.replaceText(TextReplacementConfig.builder()
+                .match(MARKER_PATTERN)
+                .replacement((result, builder) -> builder.content(values[Integer.parseInt(result.group(1))]))
+                .build());
+    }
+
+    private boolean isPlainText(final @NotNull String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == MARKER_START || (json ? c == '"' || c == '\\' || c < ' ' : c == '<' || c == '>' || c == '\\')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int count(final @NotNull Matcher matcher) {
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean markerInsideTag(final @NotNull String source) {
+        final Matcher matcher = MARKER_PATTERN.matcher(source);
+        while (matcher.find()) {
+            if (source.lastIndexOf('<', matcher.start()) > source.lastIndexOf('>', matcher.start())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Count the markers found in the text of a component and its children. Returns -1 if part of a marker was found
+     * outside of plain text, or a marker was split between components.
+     */
+    private static int countMarkers(final @NotNull Component component) {
+        int count = 0;
+        if (component instanceof TextComponent) {
+            final String content = ((TextComponent) component).content();
+            count = count(MARKER_PATTERN.matcher(content));
+
+            int markerChars = 0;
+            for (int i = 0; i < content.length(); i++) {
+                if (content.charAt(i) == MARKER_START || content.charAt(i) == MARKER_END) {
+                    markerChars++;
+                }
+            }
+            if (markerChars != count * 2) {
+                return -1;
+            }
+        }
+
+        for (final Component child : component.children()) {
+            final int childCount = countMarkers(child);
+            if (childCount == -1) {
+                return -1;
+            }
+            count += childCount;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,91 @@
+package com.extendedclip.deluxemenus.cache;
+
+import com.extendedclip.deluxemenus.DeluxeMenus;
+import com.extendedclip.deluxemenus.config.GeneralConfig;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the results of permission checks done by menus, per player.
+ * <br>
+ * Results are kept for {@code permission_cache.ttl_millis}, or until they are invalidated if the time to live is 0.
+ * The results of a player are invalidated when a menu gives or takes a permission, when the player changes worlds or
+ * leaves, and when LuckPerms recalculates their permissions.
+ */
+public class PermissionCache implements SimpleCache {
+
+    private final DeluxeMenus plugin;
+    private final Map<UUID, Map<String, Entry>> results = new ConcurrentHashMap<>();
+
+    public PermissionCache(final @NotNull DeluxeMenus plugin) {
+        this.plugin = plugin;
+    }
+
+    public boolean isEnabled() {
+        return plugin.getGeneralConfig().permissionCacheEnabled();
+    }
+
+    /**
+     * Check if a player has a permission, using the cached result if one that has not expired yet is available.
+     *
+     * @param player     the player to check
+     * @param permission the permission to check for
+     * @return true if the player has the permission
+     */
+    public boolean hasPermission(final @NotNull Player player, final @NotNull String permission) {
+        final GeneralConfig config = plugin.getGeneralConfig();
+        if (!config.permissionCacheEnabled()) {
+            return player.hasPermission(permission);
+        }
+
+        final long now = System.currentTimeMillis();
+        final Map<String, Entry> playerResults = results.get(player.getUniqueId());
+        final Entry entry = playerResults == null ? null : playerResults.get(permission);
+
+        if (entry != null && entry.expiresAt > now) {
+            return entry.result;
+        }
+
+        final boolean result = player.hasPermission(permission);
+
+        // Don't keep results for players that already left, they would never be evicted.
+        if (player.isOnline()) {
+            final long ttl = config.permissionCacheTimeToLive();
+            results.computeIfAbsent(player.getUniqueId(), uuid -> new ConcurrentHashMap<>())
+                    .put(permission, new Entry(result, ttl <= 0 ? Long.MAX_VALUE : now + ttl));
+        }
+        return result;
+    }
+
+    /**
+     * Remove all cached results of a player.
+     *
+     * @param uuid the uuid of the player
+     */
+    public void invalidate(final @NotNull UUID uuid) {
+        results.remove(uuid);
+    }
+
+    @Override
+    public void clearCache() {
+        results.clear();
+    }
+
+    public int size() {
+        return results.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private static final class Entry {
+        private final boolean result;
+        private final long expiresAt;
+
+        private Entry(final boolean result, final long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
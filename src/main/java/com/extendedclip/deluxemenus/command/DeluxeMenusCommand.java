@@ -96,6 +96,7 @@ public class DeluxeMenusCommand implements TabExecutor {
                 new ListCommand(plugin),
                 new MetaCommand(plugin),
                 new OpenCommand(plugin),
+                new ProfileCommand(plugin),
                 new RefreshCommand(plugin),
                 new ReloadCommand(plugin)
         );
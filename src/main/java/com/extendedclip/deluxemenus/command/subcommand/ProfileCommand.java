@@ -0,0 +1,252 @@
+package com.extendedclip.deluxemenus.command.subcommand;
+
+import com.extendedclip.deluxemenus.DeluxeMenus;
+import com.extendedclip.deluxemenus.placeholder.PlaceholderCache;
+import com.extendedclip.deluxemenus.placeholder.PlaceholderProfiler;
+import com.extendedclip.deluxemenus.requirement.RequirementCosts;
+import com.extendedclip.deluxemenus.requirement.javascript.ScriptEnginePool;
+import com.extendedclip.deluxemenus.utils.LatencyHistogram;
+import com.extendedclip.deluxemenus.utils.Messages;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static net.kyori.adventure.text.Component.newline;
+import static net.kyori.adventure.text.Component.space;
+import static net.kyori.adventure.text.Component.text;
+
+public class ProfileCommand extends SubCommand {
+
+    private static final String ADMIN_PERMISSION = "deluxemenus.admin";
+    private static final List<String> PROFILES = List.of("placeholders", "javascript", "requirements");
+    private static final int MAX_LINES = 10;
+
+    public ProfileCommand(final @NotNull DeluxeMenus plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "profile";
+    }
+
+    @Override
+    public void execute(final @NotNull CommandSender sender, final @NotNull List<String> arguments) {
+        if (!sender.hasPermission(ADMIN_PERMISSION)) {
+            plugin.sms(sender, Messages.NO_PERMISSION);
+            return;
+        }
+
+        if (arguments.isEmpty() || arguments.size() > 2) {
+            plugin.sms(sender, Messages.WRONG_USAGE_PROFILE_COMMAND);
+            return;
+        }
+
+        final boolean reset = arguments.size() == 2 && arguments.get(1).equalsIgnoreCase("reset");
+        if (arguments.size() == 2 && !reset) {
+            plugin.sms(sender, Messages.WRONG_USAGE_PROFILE_COMMAND);
+            return;
+        }
+
+        switch (arguments.get(0).toLowerCase(Locale.ROOT)) {
+            case "placeholders":
+                if (reset) {
+                    plugin.getPlaceholderProfiler().reset();
+                    plugin.sms(sender, Messages.PROFILE_RESET);
+                    return;
+                }
+                sendPlaceholderProfile(sender);
+                break;
+            case "javascript":
+                if (reset) {
+                    plugin.getScriptEnginePool().resetMetrics();
+                    plugin.sms(sender, Messages.PROFILE_RESET);
+                    return;
+                }
+                sendJavascriptProfile(sender);
+                break;
+            case "requirements":
+                if (reset) {
+                    plugin.getRequirementCosts().reset();
+                    plugin.sms(sender, Messages.PROFILE_RESET);
+                    return;
+                }
+                sendRequirementProfile(sender);
+                break;
+            default:
+                plugin.sms(sender, Messages.WRONG_USAGE_PROFILE_COMMAND);
+                break;
+        }
+    }
+
+    private void sendPlaceholderProfile(final @NotNull CommandSender sender) {
+        final PlaceholderProfiler profiler = plugin.getPlaceholderProfiler();
+        if (!profiler.isEnabled()) {
+            plugin.sms(sender, Messages.PLACEHOLDER_PROFILER_DISABLED);
+            return;
+        }
+
+        final PlaceholderCache cache = plugin.getPlaceholderCache();
+
+        Component message = Messages.PLUGIN_TITLE.message()
+                .append(space())
+                .append(text("placeholder profile", NamedTextColor.WHITE));
+        message = appendEntries(message, "Expansions", profiler.getIdentifiers());
+        message = appendEntries(message, "Menus", profiler.getMenus());
+        message = appendEntries(message, "Worst offenders of the last window", profiler.getWorstOffenders());
+        message = message.append(newline())
+                .append(text("Cache:", NamedTextColor.GOLD))
+                .append(space())
+                .append(text(String.format(
+                        Locale.ROOT,
+                        "%d hits, %d misses, %.2f%% hit rate, %d entries",
+                        cache.getHits(),
+                        cache.getMisses(),
+                        cache.getHitRate(),
+                        cache.size()
+                ), NamedTextColor.WHITE));
+
+        plugin.sms(sender, message);
+    }
+
+    private void sendJavascriptProfile(final @NotNull CommandSender sender) {
+        final ScriptEnginePool pool = plugin.getScriptEnginePool();
+
+        Component message = Messages.PLUGIN_TITLE.message()
+                .append(space())
+                .append(text("javascript profile", NamedTextColor.WHITE));
+        message = appendLine(message, "Engines", String.format(
+                Locale.ROOT,
+                "%d created, %d idle, pool size %d, %d temporary",
+                pool.getCreated(),
+                pool.getIdle(),
+                pool.getSize(),
+                pool.getTemporary()
+        ));
+        message = appendLine(message, "Pool waits", describe(pool.getWaits()));
+        message = appendLine(message, "Evaluations", describe(pool.getEvaluations()));
+
+        plugin.sms(sender, message);
+    }
+
+    private void sendRequirementProfile(final @NotNull CommandSender sender) {
+        final RequirementCosts costs = plugin.getRequirementCosts();
+
+        Component message = Messages.PLUGIN_TITLE.message()
+                .append(space())
+                .append(text("requirement costs", NamedTextColor.WHITE))
+                .append(space())
+                .append(text(costs.isEnabled() ? "(reordering enabled)" : "(reordering disabled)", NamedTextColor.GRAY));
+
+        for (final RequirementCosts.Entry entry : costs.getEntries()) {
+            final Long average = entry.getAverageNanos();
+            message = message.append(newline())
+                    .append(text(">", NamedTextColor.AQUA))
+                    .append(space().append(space()))
+                    .append(text(entry.getType().getIdentifiers().get(0), NamedTextColor.WHITE))
+                    .append(space())
+                    .append(text(
+                            "estimate " + LatencyHistogram.formatMillis(entry.getEstimateNanos())
+                                    + ", static " + LatencyHistogram.formatMillis(entry.getStaticNanos())
+                                    + ", measured " + (average == null ? "-" : LatencyHistogram.formatMillis(average))
+                                    + ", count " + entry.getCount(),
+                            NamedTextColor.GRAY
+                    ));
+        }
+
+        plugin.sms(sender, message);
+    }
+
+    private @NotNull Component appendLine(final @NotNull Component message, final @NotNull String title,
+                                          final @NotNull String line) {
+        return message.append(newline())
+                .append(text(title + ":", NamedTextColor.GOLD))
+                .append(space())
+                .append(text(line, NamedTextColor.WHITE));
+    }
+
+    private @NotNull String describe(final @NotNull LatencyHistogram histogram) {
+        return "count " + histogram.count()
+                + ", p50 " + LatencyHistogram.formatMillis(histogram.percentileNanos(0.5))
+                + ", p99 " + LatencyHistogram.formatMillis(histogram.percentileNanos(0.99))
+                + ", max " + LatencyHistogram.formatMillis(histogram.maxNanos())
+                + ", total " + LatencyHistogram.formatMillis(histogram.totalNanos());
+    }
+
+    private @NotNull Component appendEntries(@NotNull Component message, final @NotNull String title,
+                                             final @NotNull List<PlaceholderProfiler.Entry> entries) {
+        message = message.append(newline()).append(text(title + ":", NamedTextColor.GOLD));
+
+        if (entries.isEmpty()) {
+            return message.append(space()).append(text("nothing recorded", NamedTextColor.GRAY));
+        }
+
+        for (final PlaceholderProfiler.Entry entry : entries.subList(0, Math.min(MAX_LINES, entries.size()))) {
+            message = message.append(newline())
+                    .append(text(">", NamedTextColor.AQUA))
+                    .append(space().append(space()))
+                    .append(text(entry.getName(), NamedTextColor.WHITE))
+                    .append(space())
+                    .append(text(
+                            "count " + entry.getCount()
+                                    + ", p50 " + LatencyHistogram.formatMillis(entry.getP50Nanos())
+                                    + ", p99 " + LatencyHistogram.formatMillis(entry.getP99Nanos())
+                                    + ", max " + LatencyHistogram.formatMillis(entry.getMaxNanos())
+                                    + ", total " + LatencyHistogram.formatMillis(entry.getTotalNanos()),
+                            NamedTextColor.GRAY
+                    ));
+        }
+        return message;
+    }
+
+    @Override
+    public @Nullable List<String> onTabComplete(final @NotNull CommandSender sender, final @NotNull List<String> arguments) {
+        if (!sender.hasPermission(ADMIN_PERMISSION)) {
+            return null;
+        }
+
+        if (arguments.isEmpty()) {
+            return List.of(getName());
+        }
+
+        if (arguments.size() > 3) {
+            return null;
+        }
+
+        if (arguments.size() == 1) {
+            if (arguments.get(0).isEmpty()) {
+                return List.of(getName());
+            }
+
+            final String firstArgument = arguments.get(0).toLowerCase();
+
+            if (getName().startsWith(firstArgument)) {
+                return List.of(getName());
+            }
+
+            return null;
+        }
+
+        final String firstArgument = arguments.get(0).toLowerCase();
+
+        if (!getName().equals(firstArgument)) {
+            return null;
+        }
+
+        if (arguments.size() == 3) {
+            return "reset".startsWith(arguments.get(2).toLowerCase()) ? List.of("reset") : null;
+        }
+
+        final String secondArgument = arguments.get(1).toLowerCase();
+
+        return PROFILES.stream()
+                .filter(profile -> profile.startsWith(secondArgument))
+                .collect(Collectors.toList());
+    }
+}
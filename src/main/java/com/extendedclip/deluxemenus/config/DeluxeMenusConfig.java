@@ -13,6 +13,7 @@ import com.extendedclip.deluxemenus.menu.options.CustomModelDataComponent;
 import com.extendedclip.deluxemenus.menu.options.LoreAppendMode;
 import com.extendedclip.deluxemenus.menu.options.MenuItemOptions;
 import com.extendedclip.deluxemenus.menu.options.MenuOptions;
+import com.extendedclip.deluxemenus.requirement.ExpressionRequirement;
 import com.extendedclip.deluxemenus.requirement.HasExpRequirement;
 import com.extendedclip.deluxemenus.requirement.HasItemRequirement;
 import com.extendedclip.deluxemenus.requirement.HasMetaRequirement;
@@ -28,6 +29,8 @@ import com.extendedclip.deluxemenus.requirement.Requirement;
 import com.extendedclip.deluxemenus.requirement.RequirementList;
 import com.extendedclip.deluxemenus.requirement.RequirementType;
 import com.extendedclip.deluxemenus.requirement.StringLengthRequirement;
+import com.extendedclip.deluxemenus.requirement.expression.Expression;
+import com.extendedclip.deluxemenus.requirement.expression.ExpressionException;
 import com.extendedclip.deluxemenus.requirement.wrappers.ItemWrapper;
 import com.extendedclip.deluxemenus.utils.DebugLevel;
 import com.extendedclip.deluxemenus.utils.ItemUtils;
@@ -162,6 +165,41 @@ public class DeluxeMenusConfig {
         }
     }
 
+    /**
+     * Get an interval from the config. Intervals are in seconds unless they end with 't', in which case they are in
+     * ticks. eg. '5' or '2.5' are seconds, '5t' is 5 ticks.
+     *
+     * @param c            the configuration to read from
+     * @param path         the path of the interval
+     * @param defaultTicks the value to use if the interval is missing or invalid
+     * @return the interval in ticks
+     */
+    private long getIntervalTicks(final @NotNull FileConfiguration c, final @NotNull String path, final long defaultTicks) {
+        if (!c.contains(path)) {
+            return defaultTicks;
+        }
+
+        final String value = String.valueOf(c.get(path)).trim().toLowerCase(Locale.ROOT);
+        try {
+            final long ticks = value.endsWith("t")
+                    ? Long.parseLong(value.substring(0, value.length() - 1).trim())
+                    : Math.round(Double.parseDouble(value) * 20);
+
+            if (ticks > 0) {
+                return ticks;
+            }
+        } catch (final NumberFormatException ignored) {
+        }
+
+        plugin.debug(
+                DebugLevel.HIGHEST,
+                Level.WARNING,
+                "Invalid interval: " + value + " found at path: " + path + ".",
+                "Intervals are in seconds, or in ticks if they end with 't'. Using " + defaultTicks + " ticks instead."
+        );
+        return defaultTicks;
+    }
+
     public boolean loadDefConfig() {
         if (checkConfig(null, "config.yml", true) == null) {
             return false;
@@ -557,11 +595,14 @@ public class DeluxeMenusConfig {
             builder.closeHandler(getClickHandler(c, pre + "close_commands"));
         }
 
-        final int updateInterval = c.getInt(pre + "update_interval", 10);
-        builder.updateInterval(updateInterval > 0 ? updateInterval : 10);
+        final long updateInterval = getIntervalTicks(c, pre + "update_interval", 200);
+        builder.updateIntervalTicks(updateInterval);
+
+        final long refreshInterval = getIntervalTicks(c, pre + "refresh_interval", 200);
+        builder.refreshIntervalTicks(refreshInterval);
 
-        final int refreshInterval = c.getInt(pre + "refresh_interval", 10);
-        builder.refreshInterval(refreshInterval > 0 ? refreshInterval : 10);
+        builder.adaptiveUpdateInterval(c.getBoolean(pre + "adaptive_update_interval", false));
+        builder.maxUpdateIntervalTicks(getIntervalTicks(c, pre + "max_update_interval", updateInterval * 8));
 
         final boolean refresh = c.getBoolean(pre + "refresh", false);
         builder.refresh(refresh);
@@ -1027,6 +1068,17 @@ public class DeluxeMenusConfig {
                         plugin.debug(DebugLevel.HIGHEST, Level.WARNING, "Javascript requirement at path: " + rPath + " does not contain an expression: entry");
                     }
                     break;
+                case EXPRESSION:
+                    if (!c.contains(rPath + ".expression")) {
+                        plugin.debug(DebugLevel.HIGHEST, Level.WARNING, "Expression requirement at path: " + rPath + " does not contain an expression: entry");
+                        break;
+                    }
+                    try {
+                        req = new ExpressionRequirement(plugin, Expression.compile(c.getString(rPath + ".expression")));
+                    } catch (final ExpressionException exception) {
+                        plugin.debug(DebugLevel.HIGHEST, Level.WARNING, "Expression requirement at path: " + rPath + " is invalid: " + exception.getMessage());
+                    }
+                    break;
                 case EQUAL_TO:
                 case NOT_EQUAL_TO:
                 case GREATER_THAN:
@@ -1141,6 +1193,7 @@ public class DeluxeMenusConfig {
                     requirementDenyHandler = getClickHandler(c, rPath + ".deny_commands");
                 }
 
+                req.setType(type);
                 req.setOptional(c.getBoolean(rPath + ".optional", false));
                 req.setSuccessHandler(requirementSuccessHandler);
                 req.setDenyHandler(requirementDenyHandler);
@@ -1153,6 +1206,7 @@ public class DeluxeMenusConfig {
         }
 
         RequirementList list = new RequirementList(requirements);
+        list.setPath(path);
 
         if (c.contains(path + ".deny_commands")) {
             debug("global deny handler found");
@@ -1239,7 +1293,7 @@ public class DeluxeMenusConfig {
                             continue;
                         }
 
-                        final ClickActionTask actionTask = new ClickActionTask(plugin, holder.getViewer().getUniqueId(), action.getType(), action.getExecutable(), holder.getTypedArgs(), holder.parsePlaceholdersInArguments(), holder.parsePlaceholdersAfterArguments());
+                        final ClickActionTask actionTask = new ClickActionTask(plugin, holder.getViewer().getUniqueId(), action, holder.getTypedArgs(), holder.parsePlaceholdersInArguments(), holder.parsePlaceholdersAfterArguments());
 
                         Scheduler scheduler = action.getType().getScheduler().getScheduler(holder.getViewer());
 
@@ -2,8 +2,14 @@ package com.extendedclip.deluxemenus.config;
 
 import com.extendedclip.deluxemenus.DeluxeMenus;
 import com.extendedclip.deluxemenus.utils.DebugLevel;
+import org.bukkit.configuration.ConfigurationSection;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 public class GeneralConfig {
     private final DeluxeMenus plugin;
 
@@ -12,6 +18,22 @@ public class GeneralConfig {
     private boolean useAdminCommandsInMenusList = false;
     private int menusListPageSize = 10;
     private int metasListPageSize = 15;
+    private int menuUpdatesPerTick = 200;
+    private boolean placeholderCacheEnabled = false;
+    private long placeholderCacheDefaultTimeToLive = 0;
+    private Map<String, Long> placeholderCacheTimesToLive = Collections.emptyMap();
+    private boolean placeholderProfilerEnabled = false;
+    private int placeholderProfilerWindowSeconds = 60;
+    private int placeholderProfilerWorstOffenders = 5;
+    private int javascriptEnginePoolSize = 0;
+    private boolean javascriptTranslateExpressions = false;
+    private boolean reorderRequirementsByCost = false;
+    private boolean prefetchEntityRequirements = true;
+    private boolean parallelSlotRequirements = true;
+    private boolean vaultCompareBalance = false;
+    private long vaultBalanceCacheMillis = 0;
+    private boolean permissionCacheEnabled = false;
+    private long permissionCacheTimeToLive = 5000;
 
     public GeneralConfig(final @NotNull DeluxeMenus plugin) {
         this.plugin = plugin;
@@ -23,12 +45,46 @@ public class GeneralConfig {
         plugin.getConfig().addDefault("use_admin_commands_in_menus_list", false);
         plugin.getConfig().addDefault("menus_list_page_size", menusListPageSize);
         plugin.getConfig().addDefault("metas_list_page_size", metasListPageSize);
+        plugin.getConfig().addDefault("menu_updates_per_tick", menuUpdatesPerTick);
+        plugin.getConfig().addDefault("placeholder_cache.enabled", placeholderCacheEnabled);
+        plugin.getConfig().addDefault("placeholder_cache.default_ttl_millis", placeholderCacheDefaultTimeToLive);
+        plugin.getConfig().addDefault("placeholder_cache.ttl_millis.vault", 1000);
+        plugin.getConfig().addDefault("placeholder_cache.ttl_millis.luckperms", 5000);
+        plugin.getConfig().addDefault("placeholder_cache.ttl_millis.statistic", 5000);
+        plugin.getConfig().addDefault("placeholder_profiler.enabled", placeholderProfilerEnabled);
+        plugin.getConfig().addDefault("placeholder_profiler.sampling_window_seconds", placeholderProfilerWindowSeconds);
+        plugin.getConfig().addDefault("placeholder_profiler.worst_offenders", placeholderProfilerWorstOffenders);
+        plugin.getConfig().addDefault("javascript.engine_pool_size", javascriptEnginePoolSize);
+        plugin.getConfig().addDefault("javascript.translate_expressions", javascriptTranslateExpressions);
+        plugin.getConfig().addDefault("requirements.reorder_by_cost", reorderRequirementsByCost);
+        plugin.getConfig().addDefault("requirements.prefetch_on_entity_thread", prefetchEntityRequirements);
+        plugin.getConfig().addDefault("requirements.parallel_slots", parallelSlotRequirements);
+        plugin.getConfig().addDefault("vault.compare_balance", vaultCompareBalance);
+        plugin.getConfig().addDefault("vault.balance_cache_millis", vaultBalanceCacheMillis);
+        plugin.getConfig().addDefault("permission_cache.enabled", permissionCacheEnabled);
+        plugin.getConfig().addDefault("permission_cache.ttl_millis", permissionCacheTimeToLive);
 
         checkForUpdates = plugin.getConfig().getBoolean("check_updates", false);
         debugLevel = loadDebugLevel();
         useAdminCommandsInMenusList = plugin.getConfig().getBoolean("use_admin_commands_in_menus_list", false);
         menusListPageSize = plugin.getConfig().getInt("menus_list_page_size", 10);
         metasListPageSize = plugin.getConfig().getInt("metas_list_page_size", 15);
+        menuUpdatesPerTick = plugin.getConfig().getInt("menu_updates_per_tick", 200);
+        placeholderCacheEnabled = plugin.getConfig().getBoolean("placeholder_cache.enabled", false);
+        placeholderCacheDefaultTimeToLive = plugin.getConfig().getLong("placeholder_cache.default_ttl_millis", 0);
+        placeholderCacheTimesToLive = loadPlaceholderCacheTimesToLive();
+        placeholderProfilerEnabled = plugin.getConfig().getBoolean("placeholder_profiler.enabled", false);
+        placeholderProfilerWindowSeconds = plugin.getConfig().getInt("placeholder_profiler.sampling_window_seconds", 60);
+        placeholderProfilerWorstOffenders = plugin.getConfig().getInt("placeholder_profiler.worst_offenders", 5);
+        javascriptEnginePoolSize = plugin.getConfig().getInt("javascript.engine_pool_size", 0);
+        javascriptTranslateExpressions = plugin.getConfig().getBoolean("javascript.translate_expressions", false);
+        reorderRequirementsByCost = plugin.getConfig().getBoolean("requirements.reorder_by_cost", false);
+        prefetchEntityRequirements = plugin.getConfig().getBoolean("requirements.prefetch_on_entity_thread", true);
+        parallelSlotRequirements = plugin.getConfig().getBoolean("requirements.parallel_slots", true);
+        vaultCompareBalance = plugin.getConfig().getBoolean("vault.compare_balance", false);
+        vaultBalanceCacheMillis = plugin.getConfig().getLong("vault.balance_cache_millis", 0);
+        permissionCacheEnabled = plugin.getConfig().getBoolean("permission_cache.enabled", false);
+        permissionCacheTimeToLive = plugin.getConfig().getLong("permission_cache.ttl_millis", 5000);
     }
 
     public void reload() {
@@ -56,6 +112,83 @@ public class GeneralConfig {
         return metasListPageSize;
     }
 
+    public int menuUpdatesPerTick() {
+        return menuUpdatesPerTick;
+    }
+
+    public boolean placeholderCacheEnabled() {
+        return placeholderCacheEnabled;
+    }
+
+    public long placeholderCacheDefaultTimeToLive() {
+        return placeholderCacheDefaultTimeToLive;
+    }
+
+    public @NotNull Map<String, Long> placeholderCacheTimesToLive() {
+        return placeholderCacheTimesToLive;
+    }
+
+    public boolean placeholderProfilerEnabled() {
+        return placeholderProfilerEnabled;
+    }
+
+    public int placeholderProfilerWindowSeconds() {
+        return placeholderProfilerWindowSeconds;
+    }
+
+    public int placeholderProfilerWorstOffenders() {
+        return placeholderProfilerWorstOffenders;
+    }
+
+    public int javascriptEnginePoolSize() {
+        return javascriptEnginePoolSize;
+    }
+
+    public boolean javascriptTranslateExpressions() {
+        return javascriptTranslateExpressions;
+    }
+
+    public boolean reorderRequirementsByCost() {
+        return reorderRequirementsByCost;
+    }
+
+    public boolean prefetchEntityRequirements() {
+        return prefetchEntityRequirements;
+    }
+
+    public boolean parallelSlotRequirements() {
+        return parallelSlotRequirements;
+    }
+
+    public boolean vaultCompareBalance() {
+        return vaultCompareBalance;
+    }
+
+    public long vaultBalanceCacheMillis() {
+        return vaultBalanceCacheMillis;
+    }
+
+    public boolean permissionCacheEnabled() {
+        return permissionCacheEnabled;
+    }
+
+    public long permissionCacheTimeToLive() {
+        return permissionCacheTimeToLive;
+    }
+
+    private @NotNull Map<String, Long> loadPlaceholderCacheTimesToLive() {
+        final ConfigurationSection section = plugin.getConfig().getConfigurationSection("placeholder_cache.ttl_millis");
+        if (section == null) {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, Long> timesToLive = new HashMap<>();
+        for (final String identifier : section.getKeys(false)) {
+            timesToLive.put(identifier.toLowerCase(Locale.ROOT), section.getLong(identifier));
+        }
+        return Collections.unmodifiableMap(timesToLive);
+    }
+
     private @NotNull DebugLevel loadDebugLevel() {
         String configDebugLevel = plugin.getConfig().getString("debug", "HIGHEST");
 
@@ -0,0 +1,42 @@
+package com.extendedclip.deluxemenus.hooks;
+
+import com.extendedclip.deluxemenus.DeluxeMenus;
+import net.luckperms.api.LuckPerms;
+import net.luckperms.api.event.group.GroupDataRecalculateEvent;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.RegisteredServiceProvider;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Invalidates cached permission results when LuckPerms recalculates permissions. LuckPerms removes the subscriptions
+ * itself when DeluxeMenus is disabled.
+ */
+public class LuckPermsHook {
+
+    private final DeluxeMenus plugin;
+
+    public LuckPermsHook(@NotNull final DeluxeMenus plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Subscribe to the recalculation events of LuckPerms.
+     *
+     * @return true if LuckPerms is available, false otherwise.
+     */
+    public boolean register() {
+        final RegisteredServiceProvider<LuckPerms> provider = Bukkit.getServer().getServicesManager()
+                .getRegistration(LuckPerms.class);
+        if (provider == null) {
+            return false;
+        }
+
+        provider.getProvider().getEventBus().subscribe(plugin, UserDataRecalculateEvent.class,
+                event -> plugin.getPermissionCache().invalidate(event.getUser().getUniqueId()));
+        // Any member of the group may be affected.
+        provider.getProvider().getEventBus().subscribe(plugin, GroupDataRecalculateEvent.class,
+                event -> plugin.getPermissionCache().clearCache());
+        return true;
+    }
+}
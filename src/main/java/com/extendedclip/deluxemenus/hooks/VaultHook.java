@@ -1,5 +1,9 @@
 package com.extendedclip.deluxemenus.hooks;
 
+import com.extendedclip.deluxemenus.DeluxeMenus;
+import com.extendedclip.deluxemenus.cache.SimpleCache;
+import com.extendedclip.deluxemenus.menu.MenuHolder;
+import com.extendedclip.deluxemenus.menu.RenderPass;
 import net.milkbowl.vault.economy.Economy;
 import net.milkbowl.vault.permission.Permission;
 import org.bukkit.Bukkit;
@@ -7,11 +11,21 @@ import org.bukkit.entity.Player;
 import org.bukkit.plugin.RegisteredServiceProvider;
 import org.jetbrains.annotations.NotNull;
 
-public class VaultHook {
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class VaultHook implements SimpleCache {
+  private final DeluxeMenus plugin;
   private final Economy economy;
   private final Permission permission;
+  // Balances looked up through the economy, kept for vault.balance_cache_millis.
+  private final Map<UUID, Balance> balances = new ConcurrentHashMap<>();
+  // Changed whenever DeluxeMenus changes the balance of a player, so balances kept by render passes are looked up again.
+  private final Map<UUID, Long> versions = new ConcurrentHashMap<>();
 
-  public VaultHook() {
+  public VaultHook(@NotNull final DeluxeMenus plugin) {
+    this.plugin = plugin;
     final RegisteredServiceProvider<Economy> rspEconomy = Bukkit.getServer().getServicesManager()
         .getRegistration(Economy.class);
     final RegisteredServiceProvider<Permission> rspPermissions = Bukkit.getServer().getServicesManager()
@@ -41,6 +55,87 @@ public class VaultHook {
     return economy != null && economy.has(player, amount);
   }
 
+  /**
+   * Checks if the viewer of the holder has the amount in their account.
+   * <br>
+   * By default this asks the economy, like {@link #hasEnough(Player, double)}. With {@code vault.compare_balance}
+   * enabled, the balance is compared with the amount instead, and it is looked up once per render pass of the holder
+   * so every money requirement of a render shares the same lookup. Economies that allow a negative balance should
+   * keep it disabled.
+   *
+   * @param holder the holder of the player to check.
+   * @param amount the amount to check for.
+   * @return true if the economy hook is enabled and player has the amount, false otherwise.
+   */
+  public boolean hasEnough(@NotNull final MenuHolder holder, final double amount) {
+    if (economy == null) return false;
+
+    final Player player = holder.getViewer();
+    if (!plugin.getGeneralConfig().vaultCompareBalance()) {
+      return economy.has(player, amount);
+    }
+
+    final RenderPass pass = holder.getRenderPass();
+    final double balance = pass == null
+        ? getBalance(player)
+        : pass.balance(versions.getOrDefault(player.getUniqueId(), 0L), () -> getBalance(player));
+    return balance >= amount;
+  }
+
+  /**
+   * Gets the balance of the player. Balances are cached for {@code vault.balance_cache_millis}, the cached balance of
+   * a player is removed whenever money is taken from or given to them.
+   *
+   * @param player the player to check.
+   * @return the balance of the player, or 0 if the economy hook is disabled.
+   */
+  public double getBalance(@NotNull final Player player) {
+    if (economy == null) return 0;
+
+    final long ttl = plugin.getGeneralConfig().vaultBalanceCacheMillis();
+    if (ttl <= 0) {
+      return economy.getBalance(player);
+    }
+
+    final long now = System.currentTimeMillis();
+    final Balance cached = balances.get(player.getUniqueId());
+    if (cached != null && cached.expiresAt > now) {
+      return cached.value;
+    }
+
+    final double balance = economy.getBalance(player);
+    // Don't keep balances of players that already left, they would never be evicted.
+    if (player.isOnline()) {
+      balances.put(player.getUniqueId(), new Balance(balance, now + ttl));
+    }
+    return balance;
+  }
+
+  /**
+   * Removes the cached balance of a player, including the balances kept by render passes.
+   *
+   * @param uuid the uuid of the player.
+   */
+  public void invalidate(@NotNull final UUID uuid) {
+    balances.remove(uuid);
+    versions.merge(uuid, 1L, Long::sum);
+  }
+
+  /**
+   * Removes everything kept for a player that left.
+   *
+   * @param uuid the uuid of the player.
+   */
+  public void forget(@NotNull final UUID uuid) {
+    balances.remove(uuid);
+    versions.remove(uuid);
+  }
+
+  @Override
+  public void clearCache() {
+    balances.clear();
+  }
+
   /**
    * Takes the amount from the player's account.
    * <br>
@@ -52,6 +147,7 @@ public class VaultHook {
   public void takeMoney(@NotNull final Player player, final double amount) {
     if (economy == null) return;
     economy.withdrawPlayer(player, amount);
+    invalidate(player.getUniqueId());
   }
 
   /**
@@ -65,6 +161,7 @@ public class VaultHook {
   public void giveMoney(@NotNull final Player player, final double amount) {
     if (economy == null) return;
     economy.depositPlayer(player, amount);
+    invalidate(player.getUniqueId());
   }
 
   /**
@@ -103,4 +200,14 @@ public class VaultHook {
     if (permission == null) return;
     permission.playerAdd(null, player, permissionNode);
   }
+
+  private static final class Balance {
+    private final double value;
+    private final long expiresAt;
+
+    private Balance(final double value, final long expiresAt) {
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+  }
 }
\ No newline at end of file
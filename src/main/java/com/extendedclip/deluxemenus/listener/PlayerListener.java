@@ -17,6 +17,7 @@ import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryOpenEvent;
 import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.jetbrains.annotations.NotNull;
 
@@ -63,6 +64,18 @@ public class PlayerListener extends Listener {
         if (Menu.isInMenu(player)) {
             Menu.closeMenu(plugin, player, false);
         }
+
+        plugin.getPlaceholderCache().invalidate(player.getUniqueId());
+        plugin.getPermissionCache().invalidate(player.getUniqueId());
+        if (plugin.getVault() != null) {
+            plugin.getVault().forget(player.getUniqueId());
+        }
+    }
+
+    @EventHandler
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        // Permissions can depend on the world of the player.
+        plugin.getPermissionCache().invalidate(event.getPlayer().getUniqueId());
     }
 
     @EventHandler
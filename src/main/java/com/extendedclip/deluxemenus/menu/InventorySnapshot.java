@@ -0,0 +1,109 @@
+package com.extendedclip.deluxemenus.menu;
+
+import com.extendedclip.deluxemenus.hooks.ItemHook;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A copy of the contents of a player's inventory, indexed by material. Item requirements share a single snapshot
+ * during a render pass instead of copying and scanning the inventory each.
+ *
+ * @see MenuHolder#getInventorySnapshot()
+ */
+public final class InventorySnapshot {
+
+    public enum Area {
+        STORAGE,
+        ARMOR,
+        EXTRA
+    }
+
+    private final boolean full;
+    private final Map<Area, Contents> contents = new EnumMap<>(Area.class);
+    // Amounts of items matching an item hook identifier, computed on first use.
+    private final Map<String, Integer> hookTotals = new ConcurrentHashMap<>();
+
+    private InventorySnapshot(final @NotNull PlayerInventory inventory) {
+        this.full = inventory.firstEmpty() == -1;
+        this.contents.put(Area.STORAGE, new Contents(inventory.getStorageContents()));
+        this.contents.put(Area.ARMOR, new Contents(inventory.getArmorContents()));
+        this.contents.put(Area.EXTRA, new Contents(inventory.getExtraContents()));
+    }
+
+    public static @NotNull InventorySnapshot of(final @NotNull Player player) {
+        return new InventorySnapshot(player.getInventory());
+    }
+
+    /**
+     * @return true if the storage of the inventory has no empty slot
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * @return the items of an area, without empty slots
+     */
+    public @NotNull List<ItemStack> getItems(final @NotNull Area area) {
+        return contents.get(area).items;
+    }
+
+    /**
+     * @return the items of an area that are of a material
+     */
+    public @NotNull List<ItemStack> getItems(final @NotNull Area area, final @NotNull Material material) {
+        return contents.get(area).byMaterial.getOrDefault(material, Collections.emptyList());
+    }
+
+    /**
+     * @return the total amount of items of a material in an area
+     */
+    public int getTotal(final @NotNull Area area, final @NotNull Material material) {
+        return contents.get(area).totals.getOrDefault(material, 0);
+    }
+
+    /**
+     * @return the total amount of items in an area that an item hook matches to an identifier
+     */
+    public int getHookTotal(final @NotNull Area area, final @NotNull ItemHook hook, final @NotNull String identifier) {
+        return hookTotals.computeIfAbsent(area.name() + '\0' + hook.getPrefix() + '\0' + identifier, key -> {
+            int total = 0;
+            for (final ItemStack item : getItems(area)) {
+                if (hook.itemMatchesIdentifiers(item, identifier)) {
+                    total += item.getAmount();
+                }
+            }
+            return total;
+        });
+    }
+
+    private static final class Contents {
+        private final List<ItemStack> items;
+        private final Map<Material, List<ItemStack>> byMaterial = new EnumMap<>(Material.class);
+        private final Map<Material, Integer> totals = new EnumMap<>(Material.class);
+
+        private Contents(final @NotNull ItemStack @NotNull [] contents) {
+            final List<ItemStack> items = new ArrayList<>(contents.length);
+            for (final ItemStack item : contents) {
+                if (item == null || item.getType() == Material.AIR) {
+                    continue;
+                }
+
+                items.add(item);
+                byMaterial.computeIfAbsent(item.getType(), material -> new ArrayList<>(2)).add(item);
+                totals.merge(item.getType(), item.getAmount(), Integer::sum);
+            }
+            this.items = Collections.unmodifiableList(items);
+        }
+    }
+}
@@ -4,14 +4,14 @@ import com.extendedclip.deluxemenus.DeluxeMenus;
 import com.extendedclip.deluxemenus.menu.command.RegistrableMenuCommand;
 import com.extendedclip.deluxemenus.menu.options.MenuOptions;
 import com.extendedclip.deluxemenus.requirement.RequirementList;
+import com.extendedclip.deluxemenus.requirement.RequirementPlanner;
 import com.extendedclip.deluxemenus.utils.DebugLevel;
-import com.extendedclip.deluxemenus.utils.StringUtils;
 
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
-import io.github.projectunified.minelib.scheduler.async.AsyncScheduler;
 import io.github.projectunified.minelib.scheduler.global.GlobalScheduler;
 import me.clip.placeholderapi.util.Msg;
 import org.bukkit.Bukkit;
@@ -24,13 +24,24 @@ import org.jetbrains.annotations.Nullable;
 
 public class Menu {
 
-    private static final Map<String, Menu> menus = new HashMap<>();
-    private static final Set<MenuHolder> menuHolders = new HashSet<>();
-    private static final Map<UUID, Menu> lastOpenedMenus = new HashMap<>();
+    private static final Map<String, Menu> menus = new ConcurrentHashMap<>();
+    // Same menus as above, keyed by their normalized (lowercase) name. Menu names are case-insensitive, and lookups
+    // by name happen on async render threads, so this needs to be a constant time and thread-safe lookup.
+    private static final Map<String, Menu> menusByName = new ConcurrentHashMap<>();
+    // Menus keyed by each of their normalized (lowercase) open commands. Every command typed on the server is looked up
+    // here, so commands that do not belong to a menu only cost a hash miss.
+    private static final Map<String, Menu> menusByCommand = new ConcurrentHashMap<>();
+    // Open menu sessions, keyed by the uuid of their viewer. Opened and closed from multiple region threads on Folia.
+    private static final Map<UUID, MenuHolder> menuHolders = new ConcurrentHashMap<>();
+    // Same sessions as above, grouped by the normalized name of the menu they are viewing.
+    private static final Map<String, Set<MenuHolder>> menuViewers = new ConcurrentHashMap<>();
+    private static final Map<UUID, Menu> lastOpenedMenus = new ConcurrentHashMap<>();
 
     private final DeluxeMenus plugin;
     private final MenuOptions options;
     private final Map<Integer, TreeMap<Integer, MenuItem>> items;
+    // how the view requirements of the items are evaluated during a render
+    private final RequirementPlanner.Plan requirementPlan;
     // menu path starting from the plugin directory
     private final String path;
 
@@ -46,6 +57,7 @@ public class Menu {
         this.options = options;
         this.items = items;
         this.path = path;
+        this.requirementPlan = RequirementPlanner.plan(collectViewRequirements(items));
 
         if (this.options.registerCommands()) {
             this.command = new RegistrableMenuCommand(plugin, this);
@@ -53,6 +65,40 @@ public class Menu {
         }
 
         menus.put(this.options.name(), this);
+        menusByName.put(normalizeName(this.options.name()), this);
+        for (final String command : this.options.commands()) {
+            menusByCommand.put(normalizeName(command), this);
+        }
+    }
+
+    private static @NotNull List<List<RequirementList>> collectViewRequirements(
+            final @Nullable Map<Integer, TreeMap<Integer, MenuItem>> items
+    ) {
+        final List<List<RequirementList>> slots = new ArrayList<>();
+        if (items == null) {
+            return slots;
+        }
+
+        for (TreeMap<Integer, MenuItem> slotItems : items.values()) {
+            final List<RequirementList> lists = new ArrayList<>();
+            for (MenuItem item : slotItems.values()) {
+                final Optional<RequirementList> viewRequirements = item.options().viewRequirements();
+                if (!viewRequirements.isPresent()) {
+                    // This item is always shown, the items after it are never reached.
+                    break;
+                }
+                lists.add(viewRequirements.get());
+            }
+
+            if (!lists.isEmpty()) {
+                slots.add(lists);
+            }
+        }
+        return slots;
+    }
+
+    private static @NotNull String normalizeName(final @NotNull String name) {
+        return name.toLowerCase(Locale.ROOT);
     }
 
     public static void unload(final @NotNull DeluxeMenus plugin, final @NotNull String name) {
@@ -67,8 +113,13 @@ public class Menu {
             return;
         }
 
-        optionalMenu.get().unregisterCommand();
-        menus.remove(name);
+        final Menu menu = optionalMenu.get();
+        menu.unregisterCommand();
+        menus.remove(menu.options().name(), menu);
+        menusByName.remove(normalizeName(name), menu);
+        for (final String command : menu.options().commands()) {
+            menusByCommand.remove(normalizeName(command), menu);
+        }
     }
 
     public static void unload(final @NotNull DeluxeMenus plugin) {
@@ -81,7 +132,10 @@ public class Menu {
             menu.unregisterCommand();
         }
         menus.clear();
+        menusByName.clear();
+        menusByCommand.clear();
         menuHolders.clear();
+        menuViewers.clear();
         lastOpenedMenus.clear();
     }
 
@@ -102,6 +156,8 @@ public class Menu {
             }
         }
         menus.clear();
+        menusByName.clear();
+        menusByCommand.clear();
     }
 
     public static int getLoadedMenuSize() {
@@ -136,27 +192,53 @@ public class Menu {
     }
 
     public static @NotNull Optional<Menu> getMenuByName(final @NotNull String name) {
-        return menus.entrySet().stream().filter(e -> e.getKey().equalsIgnoreCase(name)).findFirst().map(Entry::getValue);
+        return Optional.ofNullable(menusByName.get(normalizeName(name)));
     }
 
     public static @NotNull Optional<Menu> getMenuByCommand(final @NotNull String command) {
-        return menus.values().stream().filter(m -> m.getMenuCommandUsed(command).isPresent()).findFirst();
+        return Optional.ofNullable(menusByCommand.get(normalizeName(command)));
     }
 
     public static boolean isMenuCommand(final @NotNull String command) {
-        return getMenuByCommand(command).isPresent();
+        return menusByCommand.containsKey(normalizeName(command));
     }
 
     public static boolean isInMenu(final @NotNull Player player) {
-        return menuHolders.stream().anyMatch(h -> h.getViewerName().equals(player.getName()));
+        return menuHolders.containsKey(player.getUniqueId());
     }
 
     public static boolean isInMenu(final @NotNull Player player, final @NotNull String menu) {
-        return menuHolders.stream().anyMatch(h -> h.getMenuName().equals(menu) && h.getViewerName().equals(player.getName()));
+        final MenuHolder holder = menuHolders.get(player.getUniqueId());
+        return holder != null && holder.getMenuName().equalsIgnoreCase(menu);
     }
 
     public static Optional<MenuHolder> getMenuHolder(final @NotNull Player player) {
-        return menuHolders.stream().filter(h -> h.getViewerName().equals(player.getName())).findFirst();
+        return Optional.ofNullable(menuHolders.get(player.getUniqueId()));
+    }
+
+    private static void registerHolder(final @NotNull MenuHolder holder) {
+        final MenuHolder previous = menuHolders.put(holder.getViewer().getUniqueId(), holder);
+        if (previous != null && previous != holder) {
+            removeViewer(previous);
+        }
+
+        menuViewers.computeIfAbsent(normalizeName(holder.getMenuName()), k -> ConcurrentHashMap.newKeySet()).add(holder);
+    }
+
+    private static void unregisterHolder(final @NotNull MenuHolder holder) {
+        menuHolders.remove(holder.getViewer().getUniqueId(), holder);
+        removeViewer(holder);
+    }
+
+    private static void removeViewer(final @NotNull MenuHolder holder) {
+        final Set<MenuHolder> viewers = menuViewers.get(normalizeName(holder.getMenuName()));
+        if (viewers != null) {
+            viewers.remove(holder);
+        }
+    }
+
+    private static @NotNull Set<MenuHolder> getViewers(final @NotNull String menuName) {
+        return menuViewers.getOrDefault(normalizeName(menuName), Collections.emptySet());
     }
 
     public static Optional<Menu> getOpenMenu(final @NotNull Player player) {
@@ -193,6 +275,15 @@ public class Menu {
         holder.stopPlaceholderUpdate();
         holder.stopRefreshTask();
 
+        if (holder.getAppliedUpdates() > 0 || holder.getSkippedUpdates() > 0) {
+            plugin.debug(
+                    DebugLevel.LOWEST,
+                    Level.INFO,
+                    "Placeholder updates for menu: " + holder.getMenuName() + " viewed by: " + player.getName()
+                            + ". Applied: " + holder.getAppliedUpdates() + ", skipped as unchanged: " + holder.getSkippedUpdates()
+            );
+        }
+
         if (executeCloseActions) {
             holder.getMenu().map(Menu::options).map(MenuOptions::closeHandler).flatMap(h -> h).ifPresent(h -> h.onClick(holder));
         }
@@ -203,8 +294,14 @@ public class Menu {
                 cleanInventory(plugin, player);
             });
         }
-        menuHolders.remove(holder);
-        lastOpenedMenus.put(player.getUniqueId(), holder.getMenu().orElse(null));
+        unregisterHolder(holder);
+
+        final Optional<Menu> menu = holder.getMenu();
+        if (menu.isPresent()) {
+            lastOpenedMenus.put(player.getUniqueId(), menu.get());
+        } else {
+            lastOpenedMenus.remove(player.getUniqueId());
+        }
     }
 
     public static void closeMenuForShutdown(final @NotNull DeluxeMenus plugin, final @NotNull Player player) {
@@ -219,8 +316,8 @@ public class Menu {
     }
 
     private boolean hasOpenBypassPerm(final @NotNull Player viewer) {
-        return viewer.hasPermission("deluxemenus.openrequirement.bypass." + this.options.name())
-                || viewer.hasPermission("deluxemenus.openrequirement.bypass.*");
+        return plugin.getPermissionCache().hasPermission(viewer, "deluxemenus.openrequirement.bypass." + this.options.name())
+                || plugin.getPermissionCache().hasPermission(viewer, "deluxemenus.openrequirement.bypass.*");
     }
 
     private boolean handleOpenRequirements(final @NotNull MenuHolder holder) {
@@ -280,130 +377,136 @@ public class Menu {
         holder.parsePlaceholdersInArguments(this.options.parsePlaceholdersInArguments());
         holder.parsePlaceholdersAfterArguments(this.options.parsePlaceholdersAfterArguments());
 
-        if (!this.handleArgRequirements(holder)) {
-            return;
-        }
-
-        if (!this.handleOpenRequirements(holder)) {
-            return;
+        final RenderPass pass = holder.beginRenderPass();
+        try {
+            if (!this.handleArgRequirements(holder) || !this.handleOpenRequirements(holder)) {
+                return;
+            }
+        } finally {
+            holder.endRenderPass();
         }
 
-        AsyncScheduler.get(DeluxeMenus.getInstance()).run(() -> {
-
-            Set<MenuItem> activeItems = new HashSet<>();
+        plugin.getRequirementPlanner().schedule(holder, pass, requirementPlan,
+                () -> holder.runInRenderPass(pass, () -> renderMenu(holder, viewer)));
+    }
 
-            for (Entry<Integer, TreeMap<Integer, MenuItem>> entry : items.entrySet()) {
+    /**
+     * Pick the active items of this menu for the holder, render them and open the menu for the viewer.
+     */
+    private void renderMenu(final @NotNull MenuHolder holder, final @NotNull Player viewer) {
+        final MenuItem[] activeItems = new MenuItem[this.options.size()];
+        boolean empty = true;
 
-                for (MenuItem item : entry.getValue().values()) {
+        for (Entry<Integer, TreeMap<Integer, MenuItem>> entry : items.entrySet()) {
 
-                    int slot = item.options().slot();
+            for (MenuItem item : entry.getValue().values()) {
 
-                    if (slot >= this.options.size()) {
-                        plugin.debug(
-                                DebugLevel.HIGHEST,
-                                Level.WARNING,
-                                "Item set to slot " + slot + " for menu: " + this.options.name() + " exceeds the inventory size!",
-                                "This item will not be added to the menu!"
-                        );
-                        continue;
-                    }
+                int slot = item.options().slot();
 
-                    if (item.options().viewRequirements().isPresent()) {
+                if (slot >= this.options.size()) {
+                    plugin.debug(
+                            DebugLevel.HIGHEST,
+                            Level.WARNING,
+                            "Item set to slot " + slot + " for menu: " + this.options.name() + " exceeds the inventory size!",
+                            "This item will not be added to the menu!"
+                    );
+                    continue;
+                }
 
-                        if (item.options().viewRequirements().get().evaluate(holder)) {
+                if (item.options().viewRequirements().isPresent()) {
 
-                            activeItems.add(item);
-                            break;
-                        }
-                    } else {
+                    if (item.options().viewRequirements().get().evaluate(holder)) {
 
-                        activeItems.add(item);
+                        activeItems[slot] = item;
+                        empty = false;
                         break;
                     }
-                }
-            }
+                } else {
 
-            if (activeItems.isEmpty()) {
-                return;
+                    activeItems[slot] = item;
+                    empty = false;
+                    break;
+                }
             }
+        }
 
-            holder.setMenuName(this.options.name());
-            holder.setActiveItems(activeItems);
-
-            this.options.openHandler().ifPresent(h -> h.onClick(holder));
+        if (empty) {
+            return;
+        }
 
-            String title = StringUtils.color(holder.setPlaceholdersAndArguments(this.options.title()));
+        holder.setMenuName(this.options.name());
+        holder.setActiveItems(activeItems);
 
-            Inventory inventory;
+        this.options.openHandler().ifPresent(h -> h.onClick(holder));
 
-            if (this.options.type() != InventoryType.CHEST) {
-                inventory = Bukkit.createInventory(holder, this.options.type(), title);
-            } else {
-                inventory = Bukkit.createInventory(holder, this.options.size(), title);
-            }
+        String title = holder.renderColored(this.options.titleTemplate());
 
-            holder.setInventory(inventory);
+        Inventory inventory;
 
-            boolean update = false;
+        if (this.options.type() != InventoryType.CHEST) {
+            inventory = Bukkit.createInventory(holder, this.options.type(), title);
+        } else {
+            inventory = Bukkit.createInventory(holder, this.options.size(), title);
+        }
 
-            for (MenuItem item : activeItems) {
+        holder.setInventory(inventory);
 
-                ItemStack iStack = item.getItemStack(holder);
+        boolean update = false;
 
-                if (iStack == null) {
-                    continue;
-                }
+        for (int slot = 0; slot < activeItems.length; slot++) {
+            final MenuItem item = activeItems[slot];
 
-                iStack = plugin.getMenuItemMarker().mark(iStack);
+            if (item == null) {
+                continue;
+            }
 
-                int slot = item.options().slot();
+            ItemStack iStack = item.getItemStack(holder);
 
-                if (slot >= this.options.size()) {
-                    plugin.debug(
-                            DebugLevel.HIGHEST,
-                            Level.WARNING,
-                            "Item set to slot " + slot + " for menu: " + this.options.name() + " exceeds the inventory size!",
-                            "This item will not be added to the menu!"
-                    );
-                    continue;
-                }
+            if (iStack == null) {
+                continue;
+            }
 
-                if (item.options().updatePlaceholders()) {
-                    update = true;
-                }
+            iStack = plugin.getMenuItemMarker().mark(iStack);
 
-                inventory.setItem(item.options().slot(), iStack);
+            if (item.options().updatePlaceholders()) {
+                update = true;
             }
 
-            final boolean updatePlaceholders = update;
+            inventory.setItem(slot, iStack);
+        }
+
+        final boolean updatePlaceholders = update;
 
-            GlobalScheduler.get(DeluxeMenus.getInstance()).run(() -> {
-                if(options.refresh()) {
-                    holder.startRefreshTask();
-                }
+        GlobalScheduler.get(DeluxeMenus.getInstance()).run(() -> {
+            if(options.refresh()) {
+                holder.startRefreshTask();
+            }
 
-                if (isInMenu(holder.getViewer())) {
-                    closeMenu(plugin, holder.getViewer(), false);
-                }
+            if (isInMenu(holder.getViewer())) {
+                closeMenu(plugin, holder.getViewer(), false);
+            }
 
-                viewer.openInventory(inventory);
-                menuHolders.add(holder);
+            viewer.openInventory(inventory);
+            registerHolder(holder);
 
-                if (updatePlaceholders) {
-                    holder.startUpdatePlaceholdersTask();
-                }
-            });
+            if (updatePlaceholders) {
+                holder.startUpdatePlaceholdersTask();
+            }
         });
     }
 
     public void refreshForAll() {
-        menuHolders.stream().filter(menuHolder -> menuHolder.getMenuName().equalsIgnoreCase(options.name())).forEach(MenuHolder::refreshMenu);
+        getViewers(options.name()).forEach(MenuHolder::refreshMenu);
     }
 
     public @NotNull Map<Integer, TreeMap<Integer, MenuItem>> getMenuItems() {
         return this.items;
     }
 
+    public @NotNull RequirementPlanner.Plan getRequirementPlan() {
+        return this.requirementPlan;
+    }
+
     public @NotNull Optional<String> getMenuCommandUsed(final @NotNull String command) {
         return this.options.commands().stream().filter(c -> c.equalsIgnoreCase(command)).findFirst();
     }
@@ -417,7 +520,7 @@ public class Menu {
     }
 
     public int activeViewers() {
-        return (int) menuHolders.stream().filter(holder -> holder.getMenuName().equalsIgnoreCase(options.name())).count();
+        return getViewers(options.name()).size();
     }
 
 }
@@ -2,40 +2,51 @@ package com.extendedclip.deluxemenus.menu;
 
 import com.extendedclip.deluxemenus.DeluxeMenus;
 import com.extendedclip.deluxemenus.menu.options.MenuOptions;
+import com.extendedclip.deluxemenus.persistentmeta.DataType;
+import com.extendedclip.deluxemenus.utils.StringTemplate;
 import com.extendedclip.deluxemenus.utils.StringUtils;
-import io.github.projectunified.minelib.scheduler.async.AsyncScheduler;
-import io.github.projectunified.minelib.scheduler.common.task.Task;
 import io.github.projectunified.minelib.scheduler.global.GlobalScheduler;
+import org.bukkit.NamespacedKey;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.function.Function;
 
 public class MenuHolder implements InventoryHolder {
 
+    // The render pass bound to the current thread, see #beginRenderPass() and #runInRenderPass(RenderPass, Runnable).
+    private static final ThreadLocal<PassBinding> BOUND_PASS = new ThreadLocal<>();
+
     private final DeluxeMenus plugin;
     private final Player viewer;
 
     private Player placeholderPlayer;
     private String menuName;
-    private Set<MenuItem> activeItems;
-    private Task updateTask = null;
-    private Task refreshTask = null;
+    // Active items indexed by their slot. Slots without an active item are null.
+    private MenuItem[] activeItems;
+    private MenuUpdateScheduler.Subscription updateTask = null;
+    private MenuUpdateScheduler.Subscription refreshTask = null;
     private Inventory inventory;
     private boolean updating;
     private boolean parsePlaceholdersInArguments;
     private boolean parsePlaceholdersAfterArguments;
     private Map<String, String> typedArgs;
+    // The text each slot's item was built with or last updated to, indexed by slot.
+    private SlotState[] slotStates;
+    private long appliedUpdates = 0;
+    private long skippedUpdates = 0;
+    private final StringTemplate.Resolver templateResolver = new TemplateResolver();
 
     public MenuHolder(final @NotNull DeluxeMenus plugin, final @NotNull Player viewer) {
         this.plugin = plugin;
@@ -47,15 +58,15 @@ public class MenuHolder implements InventoryHolder {
         this.plugin = plugin;
         this.viewer = viewer;
         this.menuName = menuName;
-        this.activeItems = activeItems;
         this.inventory = inventory;
+        this.setActiveItems(activeItems);
     }
 
     public String getViewerName() {
         return viewer.getName();
     }
 
-    public Task getUpdateTask() {
+    public MenuUpdateScheduler.Subscription getUpdateTask() {
         return updateTask;
     }
 
@@ -71,11 +82,48 @@ public class MenuHolder implements InventoryHolder {
         this.menuName = menuName;
     }
 
+    /**
+     * Get the active items of this menu in slot order. Prefer {@link #getItem(int)} when looking for the item in a
+     * specific slot.
+     *
+     * @return a new set containing the active items, or null if no items have been set yet
+     */
     public Set<MenuItem> getActiveItems() {
-        return activeItems;
+        final MenuItem[] items = this.activeItems;
+        if (items == null) {
+            return null;
+        }
+
+        final Set<MenuItem> set = new LinkedHashSet<>();
+        for (final MenuItem item : items) {
+            if (item != null) {
+                set.add(item);
+            }
+        }
+        return set;
     }
 
     public void setActiveItems(Set<MenuItem> items) {
+        int size = this.inventory == null ? 0 : this.inventory.getSize();
+        for (final MenuItem item : items) {
+            size = Math.max(size, item.options().slot() + 1);
+        }
+
+        final MenuItem[] slots = new MenuItem[size];
+        for (final MenuItem item : items) {
+            if (item.options().slot() >= 0) {
+                slots[item.options().slot()] = item;
+            }
+        }
+        this.activeItems = slots;
+    }
+
+    /**
+     * Set the active items of this menu.
+     *
+     * @param items the active items, indexed by their slot. Slots without an active item must be null.
+     */
+    public void setActiveItems(final @Nullable MenuItem @NotNull [] items) {
         this.activeItems = items;
     }
 
@@ -84,12 +132,11 @@ public class MenuHolder implements InventoryHolder {
     }
 
     public MenuItem getItem(int slot) {
-        for (MenuItem item : activeItems) {
-            if (item.options().slot() == slot) {
-                return item;
-            }
+        final MenuItem[] items = this.activeItems;
+        if (items == null || slot < 0 || slot >= items.length) {
+            return null;
         }
-        return null;
+        return items[slot];
     }
 
     public Optional<Menu> getMenu() {
@@ -109,7 +156,187 @@ public class MenuHolder implements InventoryHolder {
             return string;
         }
 
-        return StringUtils.replacePlaceholders(string, player);
+        if (getRenderPass() == null && !plugin.getPlaceholderCache().isEnabled() && !plugin.getPlaceholderProfiler().isEnabled()) {
+            return StringUtils.replacePlaceholders(string, player);
+        }
+
+        return StringUtils.replacePlaceholders(string, this::resolvePlaceholder);
+    }
+
+    /**
+     * Check if the viewer of this holder has a permission, see {@link com.extendedclip.deluxemenus.cache.PermissionCache}.
+     *
+     * @param permission the permission to check for
+     * @return true if the viewer has the permission
+     */
+    public boolean hasPermission(final @NotNull String permission) {
+        final RenderPass pass = getRenderPass();
+        if (pass == null) {
+            return plugin.getPermissionCache().hasPermission(getViewer(), permission);
+        }
+        return pass.permission(permission, () -> plugin.getPermissionCache().hasPermission(getViewer(), permission));
+    }
+
+    /**
+     * Get a persistent meta value of the viewer. During a render pass, each value is only read once.
+     *
+     * @param key  the key of the value
+     * @param type the type of the value
+     * @return the value, or null if the viewer has no value of the type
+     */
+    public @Nullable Object getMetaValue(final @NotNull NamespacedKey key, final @NotNull DataType<?, ?> type) {
+        final RenderPass pass = getRenderPass();
+        if (pass == null) {
+            return plugin.getPersistentMetaHandler().getMetaValue(getViewer(), key, type);
+        }
+        return pass.meta(key.toString() + '\0' + type.getName(),
+                () -> plugin.getPersistentMetaHandler().getMetaValue(getViewer(), key, type));
+    }
+
+    /**
+     * Render a compiled template for this holder. Same as {@link #setPlaceholdersAndArguments(String)}.
+     *
+     * @param template the template to render
+     * @return the rendered string
+     */
+    public @NotNull String render(final @NotNull StringTemplate template) {
+        return template.render(templateResolver);
+    }
+
+    /**
+     * Render a compiled template for this holder and translate its colors. Same as
+     * {@code StringUtils.color(setPlaceholdersAndArguments(string))}.
+     *
+     * @param template the template to render
+     * @return the rendered and colored string
+     */
+    public @NotNull String renderColored(final @NotNull StringTemplate template) {
+        return template.renderColored(templateResolver);
+    }
+
+    /**
+     * Resolve the arguments and placeholders of a compiled template for this holder, one value at a time.
+     *
+     * @param template the template to resolve, must be segmented
+     * @return the resolved values, see {@link StringTemplate#resolveValues(StringTemplate.Resolver)}
+     */
+    public @NotNull String @NotNull [] resolveValues(final @NotNull StringTemplate template) {
+        return template.resolveValues(templateResolver);
+    }
+
+    private @NotNull String resolvePlaceholder(final @NotNull String placeholder) {
+        final Player player = this.placeholderPlayer != null ? this.placeholderPlayer : this.getViewer();
+        if (player == null) {
+            return placeholder;
+        }
+
+        final Function<String, String> resolver = p -> plugin.getPlaceholderCache().resolve(
+                player,
+                p,
+                uncached -> plugin.getPlaceholderProfiler().resolve(menuName, player, uncached)
+        );
+
+        final RenderPass pass = getRenderPass();
+        if (pass == null) {
+            return resolver.apply(placeholder);
+        }
+
+        return pass.placeholder(placeholder, resolver);
+    }
+
+    /**
+     * Start a render pass on the current thread. While a pass is active, each distinct placeholder and requirement is
+     * only resolved once. Passes can be nested, the pass ends when the outermost one ends. Every call must be paired
+     * with a call to {@link #endRenderPass()} on the same thread.
+     * <br>
+     * A pass is only visible to the thread it is bound to, evaluations on other threads (eg. click requirements) never
+     * see it. Use {@link #runInRenderPass(RenderPass, Runnable)} to continue a pass on another thread.
+     *
+     * @return the pass bound to the current thread
+     */
+    public @NotNull RenderPass beginRenderPass() {
+        final PassBinding bound = BOUND_PASS.get();
+        if (bound != null && bound.holder == this) {
+            bound.depth++;
+            return bound.pass;
+        }
+
+        final PassBinding binding = new PassBinding(this, new RenderPass(), bound);
+        BOUND_PASS.set(binding);
+        return binding.pass;
+    }
+
+    public void endRenderPass() {
+        final PassBinding bound = BOUND_PASS.get();
+        if (bound == null || bound.holder != this) {
+            return;
+        }
+
+        if (bound.depth > 0) {
+            bound.depth--;
+            return;
+        }
+        restoreBinding(bound.previous);
+    }
+
+    /**
+     * Run a task with a render pass bound to the current thread, so the task shares the results of the pass.
+     *
+     * @param pass the pass to bind
+     * @param task the task to run
+     */
+    public void runInRenderPass(final @NotNull RenderPass pass, final @NotNull Runnable task) {
+        final PassBinding previous = BOUND_PASS.get();
+        BOUND_PASS.set(new PassBinding(this, pass, previous));
+        try {
+            task.run();
+        } finally {
+            restoreBinding(previous);
+        }
+    }
+
+    /**
+     * @return the render pass of this holder bound to the current thread, or null if there is none
+     */
+    public @Nullable RenderPass getRenderPass() {
+        final PassBinding bound = BOUND_PASS.get();
+        return bound != null && bound.holder == this ? bound.pass : null;
+    }
+
+    private static void restoreBinding(final @Nullable PassBinding binding) {
+        if (binding == null) {
+            BOUND_PASS.remove();
+        } else {
+            BOUND_PASS.set(binding);
+        }
+    }
+
+    /**
+     * Get a snapshot of the viewer's inventory. During a render pass, the same snapshot is shared by everything that
+     * checks the inventory.
+     *
+     * @return the inventory snapshot
+     */
+    public @NotNull InventorySnapshot getInventorySnapshot() {
+        final RenderPass pass = getRenderPass();
+        if (pass == null) {
+            return InventorySnapshot.of(getViewer());
+        }
+        return pass.inventory(() -> InventorySnapshot.of(getViewer()));
+    }
+
+    /**
+     * Get a snapshot of the viewer's location and experience. During a render pass, the same snapshot is shared by
+     * everything that checks them.
+     *
+     * @return the viewer snapshot
+     */
+    public @NotNull ViewerSnapshot getViewerSnapshot() {
+        final RenderPass pass = getRenderPass();
+        if (pass == null) {
+            return ViewerSnapshot.of(getViewer());
+        }
+        return pass.viewer(() -> ViewerSnapshot.of(getViewer()));
     }
 
     public @NotNull String setArguments(final @NotNull String string) {
@@ -140,11 +367,13 @@ public class MenuHolder implements InventoryHolder {
 
         stopPlaceholderUpdate();
 
-        AsyncScheduler.get(DeluxeMenus.getInstance()).run(() -> {
+        final RenderPass pass = new RenderPass();
 
-            final Set<MenuItem> active = new HashSet<>();
+        plugin.getRequirementPlanner().schedule(this, pass, menu.getRequirementPlan(), () -> runInRenderPass(pass, () -> {
+            final MenuItem[] active = new MenuItem[getInventory().getSize()];
+            boolean empty = true;
 
-            for (int i = 0; i < getInventory().getSize(); i++) {
+            for (int i = 0; i < active.length; i++) {
                 TreeMap<Integer, MenuItem> e = menu.getMenuItems().get(i);
 
                 if (e == null) {
@@ -159,57 +388,61 @@ public class MenuHolder implements InventoryHolder {
 
                         if (item.options().viewRequirements().get().evaluate(this)) {
                             m = true;
-                            active.add(item);
+                            active[i] = item;
                             break;
                         }
                     } else {
                         m = true;
-                        active.add(item);
+                        active[i] = item;
                         break;
                     }
                 }
 
                 if (!m) {
                     getInventory().setItem(i, null);
+                } else {
+                    empty = false;
                 }
             }
 
-            if (active.isEmpty()) {
+            if (empty) {
                 Menu.closeMenu(plugin, getViewer(), true);
             }
 
-            GlobalScheduler.get(DeluxeMenus.getInstance()).run(() -> {
-
-                boolean update = false;
+            GlobalScheduler.get(DeluxeMenus.getInstance()).run(
+                    () -> runInRenderPass(pass, () -> applyRefreshedItems(menu, active))
+            );
+        }));
+    }
 
-                for (MenuItem item : active) {
+    private void applyRefreshedItems(final @NotNull Menu menu, final @Nullable MenuItem @NotNull [] active) {
+        boolean update = false;
 
-                    ItemStack iStack = item.getItemStack(this);
+        for (int slot = 0; slot < active.length; slot++) {
+            final MenuItem item = active[slot];
 
-                    int slot = item.options().slot();
+            if (item == null || slot >= menu.options().size()) {
+                continue;
+            }
 
-                    if (slot >= menu.options().size()) {
-                        continue;
-                    }
+            ItemStack iStack = item.getItemStack(this);
 
-                    if (item.options().updatePlaceholders()) {
-                        update = true;
-                    }
+            if (item.options().updatePlaceholders()) {
+                update = true;
+            }
 
-                    getInventory().setItem(item.options().slot(), iStack);
-                }
+            getInventory().setItem(slot, iStack);
+        }
 
-                setActiveItems(active);
+        setActiveItems(active);
 
-                if (update && updateTask == null) {
-                    startUpdatePlaceholdersTask();
-                } else if(!update && updateTask != null) {
-                    stopPlaceholderUpdate();
-                }
+        if (update && updateTask == null) {
+            startUpdatePlaceholdersTask();
+        } else if(!update && updateTask != null) {
+            stopPlaceholderUpdate();
+        }
 
-                setUpdating(false);
-            });
-        });
+        setUpdating(false);
     }
 
     public void stopPlaceholderUpdate() {
@@ -237,16 +470,12 @@ public class MenuHolder implements InventoryHolder {
             stopRefreshTask();
         }
 
-        refreshTask = AsyncScheduler.get(DeluxeMenus.getInstance()).runTimer(new Runnable() {
-            @Override
-            public void run() {
-                refreshMenu();
-            }
-        }, 20L,
-            20L * Menu.getMenuByName(menuName)
+        refreshTask = plugin.getMenuUpdateScheduler().schedule(menuName, 20L,
+            Menu.getMenuByName(menuName)
                 .map(Menu::options)
-                .map(MenuOptions::refreshInterval)
-                .orElse(10));
+                .map(MenuOptions::refreshIntervalTicks)
+                .orElse(200L),
+            this::refreshMenu);
     }
 
     public void startUpdatePlaceholdersTask() {
@@ -255,69 +484,172 @@ public class MenuHolder implements InventoryHolder {
             stopPlaceholderUpdate();
         }
 
-        updateTask = AsyncScheduler.get(DeluxeMenus.getInstance()).runTimer(new Runnable() {
+        final Optional<MenuOptions> options = Menu.getMenuByName(menuName).map(Menu::options);
+        final long interval = options.map(MenuOptions::updateIntervalTicks).orElse(200L);
+        final long maxInterval = options.filter(MenuOptions::adaptiveUpdateInterval)
+                .map(MenuOptions::maxUpdateIntervalTicks)
+                .orElse(interval);
+
+        updateTask = plugin.getMenuUpdateScheduler().schedule(menuName, 20L, interval, maxInterval, this::updatePlaceholders);
+    }
 
-            @Override
-            public void run() {
+    /**
+     * Update the placeholders of all active items that have placeholder updates enabled.
+     *
+     * @return true if any item was changed, false otherwise
+     */
+    private boolean updatePlaceholders() {
 
-                if (updating) {
-                    return;
-                }
+        if (updating) {
+            return true;
+        }
+
+        final MenuItem[] items = activeItems;
+
+        if (items == null) {
+            return false;
+        }
 
-                Set<MenuItem> items = getActiveItems();
+        boolean changed = false;
 
-                if (items == null) {
-                    return;
+        beginRenderPass();
+        try {
+            for (MenuItem item : items) {
+
+                if (item != null && item.options().updatePlaceholders()) {
+                    if (updateItem(item)) {
+                        appliedUpdates++;
+                        changed = true;
+                    } else {
+                        skippedUpdates++;
+                    }
                 }
+            }
+        } finally {
+            endRenderPass();
+        }
 
-                for (MenuItem item : items) {
+        return changed;
+    }
 
-                    if (item.options().updatePlaceholders()) {
+    /**
+     * Resolve the placeholders of an item with placeholder updates enabled, and apply them to the item in the
+     * inventory. The item meta is only touched if the resolved display name or lore differ from what was last applied
+     * to the slot.
+     *
+     * @param item the item to update
+     * @return true if the item in the inventory was changed, false otherwise
+     */
+    private boolean updateItem(final @NotNull MenuItem item) {
+        final int slot = item.options().slot();
+        final ItemStack i = inventory.getItem(slot);
 
-                        ItemStack i = inventory.getItem(item.options().slot());
+        if (i == null) {
+            return false;
+        }
 
-                        if (i == null) {
-                            continue;
-                        }
+        int amt = i.getAmount();
 
-                        int amt = i.getAmount();
-
-                        if (item.options().dynamicAmount().isPresent()) {
-                            try {
-                                amt = Integer.parseInt(setPlaceholdersAndArguments(item.options().dynamicAmount().get()));
-                                if (amt <= 0) {
-                                    amt = 1;
-                                }
-                            } catch (Exception exception) {
-                                plugin.printStacktrace(
-                                        "Something went wrong while updating item in slot " + item.options().slot() +
-                                                ". Invalid dynamic amount: " + setPlaceholdersAndArguments(item.options().dynamicAmount().get()),
-                                        exception
-                                );
-                            }
-                        }
+        if (item.options().dynamicAmount().isPresent()) {
+            try {
+                amt = Integer.parseInt(setPlaceholdersAndArguments(item.options().dynamicAmount().get()));
+                if (amt <= 0) {
+                    amt = 1;
+                }
+            } catch (Exception exception) {
+                plugin.printStacktrace(
+                        "Something went wrong while updating item in slot " + slot +
+                                ". Invalid dynamic amount: " + setPlaceholdersAndArguments(item.options().dynamicAmount().get()),
+                        exception
+                );
+            }
+        }
 
-                        ItemMeta meta = i.getItemMeta();
+        final SlotState state = getSlotState(slot);
+        boolean changed = false;
 
-                        if (item.options().displayNameHasPlaceholders() && item.options().displayName().isPresent()) {
-                            meta.setDisplayName(StringUtils.color(setPlaceholdersAndArguments(item.options().displayName().get())));
-                        }
+        String displayName = null;
+        if (item.options().displayNameHasPlaceholders() && item.options().displayNameTemplate().isPresent()) {
+            displayName = renderColored(item.options().displayNameTemplate().get());
+        }
 
-                        if (item.options().loreHasPlaceholders()) {
-                            meta.setLore(item.getMenuItemLore(getHolder(), item.options().lore()));
-                        }
+        List<String> lore = null;
+        if (item.options().loreHasPlaceholders()) {
+            lore = item.getMenuItemLore(getHolder());
+        }
 
-                        i.setItemMeta(meta);
-                        i.setAmount(amt);
-                    }
+        final boolean displayNameChanged = displayName != null && !displayName.equals(state.displayName);
+        final boolean loreChanged = lore != null && !lore.equals(state.lore);
+
+        if (displayNameChanged || loreChanged) {
+            final ItemMeta meta = i.getItemMeta();
+
+            if (meta != null) {
+                if (displayNameChanged) {
+                    meta.setDisplayName(displayName);
                 }
+
+                if (loreChanged) {
+                    meta.setLore(lore);
+                }
+
+                i.setItemMeta(meta);
+                changed = true;
+            }
+
+            state.displayName = displayName;
+            state.lore = lore;
+        }
+
+        if (i.getAmount() != amt) {
+            i.setAmount(amt);
+            changed = true;
+        }
+
+        return changed;
+    }
+
+    /**
+     * Remember the display name and lore the item of a slot was built with, so the placeholder update task only changes
+     * the item once its text is different.
+     *
+     * @param slot        the slot of the item
+     * @param displayName the display name the item was built with, or null if it has no placeholders
+     * @param lore        the lore the item was built with, or null if it has no placeholders
+     */
+    void setSlotText(final int slot, final @Nullable String displayName, final @Nullable List<String> lore) {
+        if (slot < 0) {
+            return;
+        }
+
+        final SlotState state = getSlotState(slot);
+        state.displayName = displayName;
+        state.lore = lore;
+    }
+
+    private @NotNull SlotState getSlotState(final int slot) {
+        SlotState[] states = this.slotStates;
+        if (states == null || states.length <= slot) {
+            final SlotState[] grown = new SlotState[Math.max(slot + 1, inventory == null ? 0 : inventory.getSize())];
+            if (states != null) {
+                System.arraycopy(states, 0, grown, 0, states.length);
             }
+            states = grown;
+            this.slotStates = states;
+        }
+
+        if (states[slot] == null) {
+            states[slot] = new SlotState();
+        }
+        return states[slot];
+    }
 
-        }, 20L,
-                20L * Menu.getMenuByName(menuName)
-                        .map(Menu::options)
-                        .map(MenuOptions::updateInterval)
-                        .orElse(10));
+    public long getAppliedUpdates() {
+        return appliedUpdates;
+    }
+
+    public long getSkippedUpdates() {
+        return skippedUpdates;
     }
 
     public boolean isUpdating() {
@@ -372,4 +704,64 @@ public class MenuHolder implements InventoryHolder {
     public @NotNull DeluxeMenus getPlugin() {
         return plugin;
     }
+
+    private final class TemplateResolver implements StringTemplate.Resolver {
+
+        @Override
+        public @NotNull String placeholder(final @NotNull String placeholder) {
+            return resolvePlaceholder(placeholder);
+        }
+
+        @Override
+        public @Nullable String argument(final @NotNull String name) {
+            final Map<String, String> arguments = typedArgs;
+            final String value = arguments == null ? null : arguments.get(name);
+            if (value == null || !parsePlaceholdersInArguments) {
+                return value;
+            }
+
+            return setPlaceholders(value);
+        }
+
+        @Override
+        public boolean parsePlaceholdersAfterArguments() {
+            return parsePlaceholdersAfterArguments;
+        }
+
+        @Override
+        public @NotNull String replacePlaceholders(final @NotNull String input) {
+            return setPlaceholders(input);
+        }
+
+        @Override
+        public @NotNull String replaceArguments(final @NotNull String input) {
+            return setArguments(input);
+        }
+
+        @Override
+        public @NotNull String replacePlaceholdersAndArguments(final @NotNull String input) {
+            return setPlaceholdersAndArguments(input);
+        }
+    }
+
+    private static final class SlotState {
+        private String displayName;
+        private List<String> lore;
+    }
+
+    private static final class PassBinding {
+        private final MenuHolder holder;
+        private final RenderPass pass;
+        // The binding this one replaced, restored when this one ends.
+        private final PassBinding previous;
+        // Nested beginRenderPass() calls that have not ended yet.
+        private int depth = 0;
+
+        private PassBinding(final @NotNull MenuHolder holder, final @NotNull RenderPass pass,
+                            final @Nullable PassBinding previous) {
+            this.holder = holder;
+            this.pass = pass;
+            this.previous = previous;
+        }
+    }
 }
@@ -1,9 +1,11 @@
 package com.extendedclip.deluxemenus.menu;
 
 import com.extendedclip.deluxemenus.DeluxeMenus;
+import com.extendedclip.deluxemenus.cache.SimpleCache;
 import com.extendedclip.deluxemenus.hooks.ItemHook;
 import com.extendedclip.deluxemenus.menu.options.HeadType;
 import com.extendedclip.deluxemenus.menu.options.LoreAppendMode;
+import com.extendedclip.deluxemenus.menu.options.LoreLine;
 import com.extendedclip.deluxemenus.menu.options.MenuItemOptions;
 import com.extendedclip.deluxemenus.menu.options.CustomModelDataComponent;
 import com.extendedclip.deluxemenus.nbt.NbtProvider;
@@ -42,8 +44,8 @@ import org.bukkit.potion.PotionEffect;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -55,17 +57,108 @@ import java.util.stream.Collectors;
 import static com.extendedclip.deluxemenus.utils.Constants.INVENTORY_ITEM_ACCESSORS;
 import static com.extendedclip.deluxemenus.utils.Constants.PLACEHOLDER_PREFIX;
 
-public class MenuItem {
+public class MenuItem implements SimpleCache {
 
     private final DeluxeMenus plugin;
     private final MenuItemOptions options;
+    // Whether this item looks the same for every viewer. If it does, it is only built once and then cloned.
+    private final boolean viewerIndependent;
+    private volatile ItemStack template = null;
 
     public MenuItem(@NotNull final DeluxeMenus plugin, @NotNull final MenuItemOptions options) {
         this.plugin = plugin;
         this.options = options;
+        this.viewerIndependent = isViewerIndependent();
     }
 
     public ItemStack getItemStack(@NotNull final MenuHolder holder) {
+        if (!this.viewerIndependent) {
+            return createItemStack(holder);
+        }
+
+        ItemStack template = this.template;
+        if (template == null) {
+            template = createItemStack(holder);
+            this.template = template;
+        }
+
+        return template.clone();
+    }
+
+    /**
+     * Checks if the output of {@link #createItemStack(MenuHolder)} is the same for every viewer. This is the case for
+     * items with a plain material that do not use placeholders or arguments in any of their options.
+     *
+     * @return true if the item can be built once and shared between viewers, false otherwise
+     */
+    private boolean isViewerIndependent() {
+        final String material = this.options.material().toLowerCase(Locale.ROOT);
+        if (ItemUtils.isPlaceholderOption(material) || ItemUtils.isPlayerItem(material) || hasDynamicText(material)) {
+            return false;
+        }
+
+        // Items from other plugins can change (or finish loading) without DeluxeMenus knowing about it.
+        if (plugin.getItemHooks().values().stream().filter(Objects::nonNull).anyMatch(hook -> material.startsWith(hook.getPrefix()))) {
+            return false;
+        }
+
+        if (this.options.dynamicAmount().isPresent()) {
+            return false;
+        }
+
+        if (this.options.customModelDataComponent().isPresent()) {
+            final CustomModelDataComponent component = this.options.customModelDataComponent().get();
+            if (hasDynamicText(component.colors()) || hasDynamicText(component.flags())
+                    || hasDynamicText(component.floats()) || hasDynamicText(component.strings())) {
+                return false;
+            }
+        }
+
+        return !hasDynamicText(this.options.damage())
+                && !hasDynamicText(this.options.customModelData())
+                && !hasDynamicText(this.options.displayName())
+                && !hasDynamicText(this.options.lore())
+                && !hasDynamicText(this.options.hideTooltip())
+                && !hasDynamicText(this.options.enchantmentGlintOverride())
+                && !hasDynamicText(this.options.rarity())
+                && !hasDynamicText(this.options.tooltipStyle())
+                && !hasDynamicText(this.options.itemModel())
+                && !hasDynamicText(this.options.trimMaterial())
+                && !hasDynamicText(this.options.trimPattern())
+                && !hasDynamicText(this.options.rgb())
+                && !hasDynamicText(this.options.lightLevel())
+                && !hasDynamicText(this.options.nbtString())
+                && !hasDynamicText(this.options.nbtByte())
+                && !hasDynamicText(this.options.nbtShort())
+                && !hasDynamicText(this.options.nbtInt())
+                && !hasDynamicText(this.options.nbtStrings())
+                && !hasDynamicText(this.options.nbtBytes())
+                && !hasDynamicText(this.options.nbtShorts())
+                && !hasDynamicText(this.options.nbtInts());
+    }
+
+    /**
+     * Checks if the text might contain placeholders or arguments. This errs on the side of caution: any '%' or '{'
+     * counts as dynamic.
+     */
+    private static boolean hasDynamicText(@Nullable final String text) {
+        return text != null && (text.indexOf('%') != -1 || text.indexOf('{') != -1);
+    }
+
+    private static boolean hasDynamicText(@NotNull final Optional<String> text) {
+        return text.isPresent() && hasDynamicText(text.get());
+    }
+
+    private static boolean hasDynamicText(@NotNull final Collection<String> texts) {
+        return texts.stream().anyMatch(MenuItem::hasDynamicText);
+    }
+
+    @Override
+    public void clearCache() {
+        this.template = null;
+    }
+
+    private ItemStack createItemStack(@NotNull final MenuHolder holder) {
         final Player viewer = holder.getViewer();
 
         ItemStack itemStack = null;
@@ -234,9 +327,10 @@ public class MenuItem {
             itemMeta.setCustomModelDataComponent(parseCustomModelDataComponent(this.options.customModelDataComponent().get(), itemMeta.getCustomModelDataComponent(), holder));
         }
 
-        if (this.options.displayName().isPresent()) {
-            final String displayName = holder.setPlaceholdersAndArguments(this.options.displayName().get());
-            itemMeta.setDisplayName(StringUtils.color(displayName));
+        String displayName = null;
+        if (this.options.displayNameTemplate().isPresent()) {
+            displayName = holder.renderColored(this.options.displayNameTemplate().get());
+            itemMeta.setDisplayName(displayName);
         }
 
         List<String> lore = new ArrayList<>();
@@ -246,24 +340,29 @@ public class MenuItem {
         // Ensures backwards compatibility with how hooked items are currently handled
         LoreAppendMode mode = this.options.loreAppendMode().orElse(LoreAppendMode.OVERRIDE);
         if (!this.options.hasLore() && this.options.loreAppendMode().isEmpty()) mode = LoreAppendMode.IGNORE;
+        final List<String> menuItemLore = mode == LoreAppendMode.IGNORE ? null : getMenuItemLore(holder);
         switch (mode) {
             case IGNORE: // DM lore is not added at all
                 lore.addAll(itemLore);
                 break;
             case TOP: // DM lore is added at the top
-                lore.addAll(getMenuItemLore(holder, this.options.lore()));
+                lore.addAll(menuItemLore);
                 lore.addAll(itemLore);
                 break;
             case BOTTOM: // DM lore is bottom at the bottom
                 lore.addAll(itemLore);
-                lore.addAll(getMenuItemLore(holder, this.options.lore()));
+                lore.addAll(menuItemLore);
                 break;
             case OVERRIDE: // Lore from DM overrides the lore from the item
-                lore.addAll(getMenuItemLore(holder, this.options.lore()));
+                lore.addAll(menuItemLore);
                 break;
         }
 
         itemMeta.setLore(lore);
+        // Placeholder updates compare against the text the item was built with.
+        holder.setSlotText(this.options.slot(),
+                this.options.displayNameHasPlaceholders() ? displayName : null,
+                this.options.loreHasPlaceholders() ? menuItemLore : null);
 
         if (this.options.unbreakable()) {
             itemMeta.setUnbreakable(true);
@@ -534,15 +633,12 @@ public class MenuItem {
         return plugin.getItemHook(hookName).map(itemHook -> itemHook.getItem(args));
     }
 
-    protected List<String> getMenuItemLore(@NotNull final MenuHolder holder, @NotNull final List<String> lore) {
-        return lore.stream()
-                .map(holder::setPlaceholdersAndArguments)
-                .map(StringUtils::color)
-                .map(line -> line.split("\n"))
-                .flatMap(Arrays::stream)
-                .map(line -> line.split("\\\\n"))
-                .flatMap(Arrays::stream)
-                .collect(Collectors.toList());
+    protected List<String> getMenuItemLore(@NotNull final MenuHolder holder) {
+        final List<String> lore = new ArrayList<>(this.options.loreSize());
+        for (final LoreLine line : this.options.loreLines()) {
+            line.render(holder::renderColored, lore);
+        }
+        return lore;
     }
 
     private @NotNull org.bukkit.inventory.meta.components.CustomModelDataComponent parseCustomModelDataComponent(
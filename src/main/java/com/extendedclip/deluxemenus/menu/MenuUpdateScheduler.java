@@ -0,0 +1,258 @@
+package com.extendedclip.deluxemenus.menu;
+
+import com.extendedclip.deluxemenus.DeluxeMenus;
+import io.github.projectunified.minelib.scheduler.async.AsyncScheduler;
+import io.github.projectunified.minelib.scheduler.common.task.Task;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs the repeating work of open menus (placeholder updates and refreshes) from a single ticking task instead of one
+ * timer per viewer.
+ * <br>
+ * Work is grouped by menu and interval, so all viewers of a menu that are due in the same tick are queued together.
+ * Each tick hands a batch of at most {@link com.extendedclip.deluxemenus.config.GeneralConfig#menuUpdatesPerTick()}
+ * queued actions to the async scheduler, anything left over is carried over to the next tick. The ticking task itself
+ * never runs the actions.
+ * <br>
+ * Ticks are counted from the time elapsed since the scheduler started, so a late or skipped timer run does not slow
+ * the updates down. Groups that were due during the missed ticks run once on the next tick.
+ * <br>
+ * Adaptive subscriptions back off while their action reports that nothing changed: the interval doubles after every
+ * run without changes, up to a maximum, and goes back to the original interval as soon as something changes.
+ */
+public class MenuUpdateScheduler {
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final DeluxeMenus plugin;
+    private final Map<String, Group> groups = new ConcurrentHashMap<>();
+    // Only accessed from the ticking task.
+    private final Queue<Subscription> pending = new ArrayDeque<>();
+    private final AtomicBoolean ticking = new AtomicBoolean(false);
+
+    private volatile long currentTick = 0;
+    private volatile long startNanos = 0;
+    private Task task = null;
+
+    public MenuUpdateScheduler(final @NotNull DeluxeMenus plugin) {
+        this.plugin = plugin;
+    }
+
+    public void start() {
+        if (task != null) {
+            return;
+        }
+
+        startNanos = System.nanoTime() - currentTick * TICK_NANOS;
+        task = AsyncScheduler.get(plugin).runTimer(this::tick, 1L, 1L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            try {
+                task.cancel();
+            } catch (Exception ignored) {
+            }
+            task = null;
+        }
+
+        groups.clear();
+    }
+
+    /**
+     * Schedule an action to run repeatedly for an open menu.
+     *
+     * @param menuName      the name of the menu the action belongs to
+     * @param delayTicks    the amount of ticks to wait before the first run
+     * @param intervalTicks the amount of ticks between runs
+     * @param action        the action to run
+     * @return the subscription that can be used to cancel the action
+     */
+    public @NotNull Subscription schedule(final @NotNull String menuName, final long delayTicks, final long intervalTicks,
+                                          final @NotNull Runnable action) {
+        return schedule(menuName, delayTicks, intervalTicks, intervalTicks, () -> {
+            action.run();
+            return true;
+        });
+    }
+
+    /**
+     * Schedule an adaptive action to run repeatedly for an open menu.
+     *
+     * @param menuName         the name of the menu the action belongs to
+     * @param delayTicks       the amount of ticks to wait before the first run
+     * @param intervalTicks    the amount of ticks between runs while the action keeps changing things
+     * @param maxIntervalTicks the maximum amount of ticks between runs while the action does not change anything
+     * @param action           the action to run. Returns true if it changed something, false otherwise
+     * @return the subscription that can be used to cancel the action
+     */
+    public @NotNull Subscription schedule(final @NotNull String menuName, final long delayTicks, final long intervalTicks,
+                                          final long maxIntervalTicks, final @NotNull BooleanSupplier action) {
+        final long interval = Math.max(1L, intervalTicks);
+        final String key = menuName.toLowerCase(Locale.ROOT) + ':' + interval;
+
+        final long notBefore = currentTick + Math.max(0L, delayTicks);
+        final long maxMultiplier = Math.max(1L, maxIntervalTicks / interval);
+
+        final Subscription[] subscription = new Subscription[1];
+        groups.compute(key, (k, existing) -> {
+            final Group group = existing != null ? existing : new Group(k, interval, currentTick + interval);
+            subscription[0] = new Subscription(group, action, notBefore, maxMultiplier);
+            group.subscriptions.add(subscription[0]);
+            return group;
+        });
+        return subscription[0];
+    }
+
+    private void tick() {
+        if (!ticking.compareAndSet(false, true)) {
+            // The next run catches up on this tick.
+            return;
+        }
+
+        try {
+            final long elapsed = (System.nanoTime() - startNanos) / TICK_NANOS;
+            if (elapsed > currentTick) {
+                currentTick = elapsed;
+                queueDue(elapsed);
+            }
+
+            final int budget = Math.max(1, plugin.getGeneralConfig().menuUpdatesPerTick());
+            final List<Subscription> batch = new ArrayList<>(Math.min(budget, pending.size()));
+            Subscription subscription;
+            while (batch.size() < budget && (subscription = pending.poll()) != null) {
+                if (subscription.cancelled) {
+                    subscription.queued = false;
+                    continue;
+                }
+                batch.add(subscription);
+            }
+
+            if (!batch.isEmpty()) {
+                AsyncScheduler.get(plugin).run(() -> run(batch));
+            }
+        } finally {
+            ticking.set(false);
+        }
+    }
+
+    private void queueDue(final long tick) {
+        for (final Group group : groups.values()) {
+            if (group.nextRun > tick) {
+                continue;
+            }
+
+            group.nextRun = tick + group.interval;
+            for (final Subscription subscription : group.subscriptions) {
+                if (subscription.cancelled || subscription.queued || subscription.notBefore > tick) {
+                    continue;
+                }
+
+                if (subscription.skips > 0) {
+                    subscription.skips--;
+                    continue;
+                }
+
+                subscription.queued = true;
+                pending.add(subscription);
+            }
+        }
+    }
+
+    private void run(final @NotNull List<Subscription> batch) {
+        for (final Subscription subscription : batch) {
+            try {
+                if (!subscription.cancelled) {
+                    subscription.ran(subscription.action.getAsBoolean());
+                }
+            } catch (final Exception exception) {
+                plugin.printStacktrace("Something went wrong while updating menu: " + subscription.group.key, exception);
+            } finally {
+                // Set last, the ticking task reads the back off of the subscription once it is no longer queued.
+                subscription.queued = false;
+            }
+        }
+    }
+
+    private void remove(final @NotNull Subscription subscription) {
+        groups.computeIfPresent(subscription.group.key, (k, group) -> {
+            group.subscriptions.remove(subscription);
+            return group.subscriptions.isEmpty() ? null : group;
+        });
+    }
+
+    private static final class Group {
+        private final String key;
+        private final long interval;
+        private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+        private volatile long nextRun;
+
+        private Group(final @NotNull String key, final long interval, final long nextRun) {
+            this.key = key;
+            this.interval = interval;
+            this.nextRun = nextRun;
+        }
+    }
+
+    public final class Subscription {
+        private final Group group;
+        private final BooleanSupplier action;
+        private final long notBefore;
+        private final long maxMultiplier;
+        private volatile boolean cancelled = false;
+        // Set by the ticking task, cleared once the batch that runs the action is done with it.
+        private volatile boolean queued = false;
+        // Accessed by the ticking task while the subscription is not queued, and by its batch while it is.
+        private long multiplier = 1;
+        private long skips = 0;
+
+        private Subscription(final @NotNull Group group, final @NotNull BooleanSupplier action, final long notBefore,
+                             final long maxMultiplier) {
+            this.group = group;
+            this.action = action;
+            this.notBefore = notBefore;
+            this.maxMultiplier = maxMultiplier;
+        }
+
+        private void ran(final boolean changed) {
+            multiplier = changed ? 1 : Math.min(multiplier * 2, maxMultiplier);
+            skips = multiplier - 1;
+        }
+
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+
+            cancelled = true;
+            remove(this);
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public long getInterval() {
+            return group.interval;
+        }
+
+        /**
+         * @return the current amount of ticks between runs, including any adaptive back off
+         */
+        public long getCurrentInterval() {
+            return group.interval * multiplier;
+        }
+    }
+}
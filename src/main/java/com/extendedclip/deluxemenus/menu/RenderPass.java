@@ -0,0 +1,206 @@
+package com.extendedclip.deluxemenus.menu;
+
+import com.extendedclip.deluxemenus.requirement.RequirementList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * State shared by everything that is resolved for a {@link MenuHolder} during a single render: opening the menu,
+ * refreshing it or updating its placeholders. Nothing stored here outlives the pass it was created for.
+ * <br>
+ * A pass is only used by the threads it is bound to while they work on the render, so evaluations outside of the
+ * render (eg. click requirements) never reuse its results.
+ *
+ * @see MenuHolder#beginRenderPass()
+ * @see MenuHolder#endRenderPass()
+ * @see MenuHolder#runInRenderPass(RenderPass, Runnable)
+ */
+public final class RenderPass {
+
+    private static final Object NO_VALUE = new Object();
+
+    // Resolved placeholder values, keyed by the full placeholder. eg. %player_name%
+    private final Map<String, String> placeholders = new ConcurrentHashMap<>();
+    // Requirement results, keyed by Requirement#getResultKey(MenuHolder).
+    private final Map<String, Boolean> requirements = new ConcurrentHashMap<>();
+    private final Map<RequirementList, Boolean> requirementLists = Collections.synchronizedMap(new IdentityHashMap<>());
+    // Permission checks of the viewer, keyed by permission.
+    private final Map<String, Boolean> permissions = new ConcurrentHashMap<>();
+    // Persistent meta values of the viewer, keyed by key and type.
+    private final Map<String, Object> meta = new ConcurrentHashMap<>();
+    private volatile InventorySnapshot inventory;
+    private volatile ViewerSnapshot viewer;
+    private volatile Balance balance;
+
+    /**
+     * Get the value of a placeholder, resolving it only if it was not already resolved during this pass.
+     *
+     * @param placeholder the full placeholder, including the surrounding percent signs
+     * @param resolver    the function used to resolve the placeholder if its value is not known yet
+     * @return the value of the placeholder
+     */
+    public @NotNull String placeholder(final @NotNull String placeholder, final @NotNull Function<String, String> resolver) {
+        final String cached = placeholders.get(placeholder);
+        if (cached != null) {
+            return cached;
+        }
+
+        final String value = resolver.apply(placeholder);
+        placeholders.put(placeholder, value);
+        return value;
+    }
+
+    /**
+     * Get the inventory snapshot of this pass, taking it the first time it is needed.
+     *
+     * @param snapshot the function used to take the snapshot
+     * @return the inventory snapshot
+     */
+    public @NotNull InventorySnapshot inventory(final @NotNull Supplier<InventorySnapshot> snapshot) {
+        InventorySnapshot inventory = this.inventory;
+        if (inventory != null) {
+            return inventory;
+        }
+
+        synchronized (this) {
+            if (this.inventory == null) {
+                this.inventory = snapshot.get();
+            }
+            return this.inventory;
+        }
+    }
+
+    /**
+     * Get the viewer snapshot of this pass, taking it the first time it is needed.
+     *
+     * @param snapshot the function used to take the snapshot
+     * @return the viewer snapshot
+     */
+    public @NotNull ViewerSnapshot viewer(final @NotNull Supplier<ViewerSnapshot> snapshot) {
+        ViewerSnapshot viewer = this.viewer;
+        if (viewer != null) {
+            return viewer;
+        }
+
+        synchronized (this) {
+            if (this.viewer == null) {
+                this.viewer = snapshot.get();
+            }
+            return this.viewer;
+        }
+    }
+
+    /**
+     * Check if the viewer has a permission, checking it only if it was not already checked during this pass.
+     *
+     * @param permission the permission
+     * @param check      the function used to check the permission if its result is not known yet
+     * @return true if the viewer has the permission
+     */
+    public boolean permission(final @NotNull String permission, final @NotNull BooleanSupplier check) {
+        final Boolean cached = permissions.get(permission);
+        if (cached != null) {
+            return cached;
+        }
+
+        final boolean result = check.getAsBoolean();
+        permissions.put(permission, result);
+        return result;
+    }
+
+    /**
+     * Get a persistent meta value of the viewer, reading it only if it was not already read during this pass.
+     *
+     * @param key    the key and type of the value
+     * @param reader the function used to read the value if it is not known yet
+     * @return the value, or null if the viewer has no value
+     */
+    public @Nullable Object meta(final @NotNull String key, final @NotNull Supplier<Object> reader) {
+        final Object cached = meta.get(key);
+        if (cached != null) {
+            return cached == NO_VALUE ? null : cached;
+        }
+
+        final Object value = reader.get();
+        meta.put(key, value == null ? NO_VALUE : value);
+        return value;
+    }
+
+    /**
+     * Get the balance of the viewer for this pass, looking it up the first time it is needed and again whenever the
+     * version changes.
+     *
+     * @param version the version of the balance, changed whenever the balance is known to have changed
+     * @param lookup  the function used to look up the balance
+     * @return the balance of the viewer
+     */
+    public double balance(final long version, final @NotNull DoubleSupplier lookup) {
+        final Balance balance = this.balance;
+        if (balance != null && balance.version == version) {
+            return balance.value;
+        }
+
+        synchronized (this) {
+            if (this.balance == null || this.balance.version != version) {
+                this.balance = new Balance(version, lookup.getAsDouble());
+            }
+            return this.balance.value;
+        }
+    }
+
+    /**
+     * Get the result of a requirement, evaluating it only if a requirement with the same key was not already
+     * evaluated during this pass.
+     *
+     * @param key       the key of the requirement, see {@code Requirement#getResultKey(MenuHolder)}
+     * @param evaluator the function used to evaluate the requirement if its result is not known yet
+     * @return the result of the requirement
+     */
+    public boolean requirement(final @NotNull String key, final @NotNull BooleanSupplier evaluator) {
+        final Boolean cached = requirements.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        final boolean result = evaluator.getAsBoolean();
+        requirements.put(key, result);
+        return result;
+    }
+
+    /**
+     * Get the result of a requirement list, evaluating it only if it was not already evaluated during this pass.
+     *
+     * @param list      the requirement list, which must not run any success or deny handlers
+     * @param evaluator the function used to evaluate the list if its result is not known yet
+     * @return the result of the requirement list
+     */
+    public boolean requirementList(final @NotNull RequirementList list, final @NotNull BooleanSupplier evaluator) {
+        final Boolean cached = requirementLists.get(list);
+        if (cached != null) {
+            return cached;
+        }
+
+        final boolean result = evaluator.getAsBoolean();
+        requirementLists.put(list, result);
+        return result;
+    }
+
+    private static final class Balance {
+        private final long version;
+        private final double value;
+
+        private Balance(final long version, final double value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+}
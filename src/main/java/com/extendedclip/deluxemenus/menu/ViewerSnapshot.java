@@ -0,0 +1,44 @@
+package com.extendedclip.deluxemenus.menu;
+
+import com.extendedclip.deluxemenus.utils.ExpUtils;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A copy of the location and experience of a player, taken on the thread that owns the player so requirements
+ * evaluated on other threads during a render pass can read them.
+ *
+ * @see MenuHolder#getViewerSnapshot()
+ */
+public final class ViewerSnapshot {
+
+    private final Location location;
+    private final int level;
+    private final int totalExperience;
+
+    private ViewerSnapshot(final @NotNull Player player) {
+        this.location = player.getLocation();
+        this.level = player.getLevel();
+        this.totalExperience = ExpUtils.getTotalExperience(player);
+    }
+
+    public static @NotNull ViewerSnapshot of(final @NotNull Player player) {
+        return new ViewerSnapshot(player);
+    }
+
+    /**
+     * @return a copy of the location of the player
+     */
+    public @NotNull Location getLocation() {
+        return location.clone();
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getTotalExperience() {
+        return totalExperience;
+    }
+}
@@ -0,0 +1,139 @@
+package com.extendedclip.deluxemenus.menu.options;
+
+import com.extendedclip.deluxemenus.utils.StringTemplate;
+import com.extendedclip.deluxemenus.utils.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * A configured lore line, split at load time on new lines ({@code \n}) and literal new line markers ({@code \\n}).
+ * <br>
+ * A line can produce multiple lore lines. The result is the same as rendering the whole line, splitting it on new
+ * lines and then splitting each of those on new line markers. Lines without arguments or placeholders are rendered
+ * once, at load time.
+ */
+public final class LoreLine {
+
+    private static final Pattern NEW_LINE_MARKER = Pattern.compile("\\\\n");
+
+    private final StringTemplate template;
+    private final boolean hasNewLines;
+    // Split on new lines first, then on new line markers.
+    private final StringTemplate[][] parts;
+    private final boolean[] hasMarkers;
+    private final List<String> constantLines;
+    private final int size;
+
+    private LoreLine(final @NotNull String line) {
+        this.template = StringTemplate.compile(line);
+        this.hasNewLines = line.indexOf('\n') != -1;
+
+        final String[] lines = line.split("\n");
+        this.parts = new StringTemplate[lines.length][];
+        this.hasMarkers = new boolean[lines.length];
+
+        boolean constant = true;
+        int size = 0;
+        for (int i = 0; i < lines.length; i++) {
+            final String[] split = NEW_LINE_MARKER.split(lines[i]);
+            this.parts[i] = new StringTemplate[split.length];
+            this.hasMarkers[i] = lines[i].contains("\\n");
+
+            for (int j = 0; j < split.length; j++) {
+                this.parts[i][j] = StringTemplate.compile(split[j]);
+                constant &= this.parts[i][j].isConstant();
+            }
+            size += split.length;
+        }
+        this.size = size;
+
+        if (!constant) {
+            this.constantLines = null;
+            return;
+        }
+
+        final List<String> constantLines = new ArrayList<>(size);
+        render(part -> StringUtils.color(part.raw()), constantLines);
+        this.constantLines = Collections.unmodifiableList(constantLines);
+    }
+
+    public static @NotNull LoreLine compile(final @NotNull String line) {
+        return new LoreLine(line);
+    }
+
+    /**
+     * @return the configured line
+     */
+    public @NotNull String raw() {
+        return template.raw();
+    }
+
+    /**
+     * @return the amount of lore lines this line produces, unless its placeholders resolve to empty strings or new
+     * lines
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Render this line and add the resulting lore lines to a list.
+     *
+     * @param renderer renders and colors a template for the viewer
+     * @param lore     the list to add the lore lines to
+     */
+    public void render(final @NotNull Function<StringTemplate, String> renderer, final @NotNull List<String> lore) {
+        if (constantLines != null) {
+            lore.addAll(constantLines);
+            return;
+        }
+
+        final String[][] rendered = new String[parts.length][];
+        for (int i = 0; i < parts.length; i++) {
+            rendered[i] = new String[parts[i].length];
+
+            for (int j = 0; j < parts[i].length; j++) {
+                final String value = renderer.apply(parts[i][j]);
+
+                // A resolved value added new lines, so the line has to be split again as a whole.
+                if (value.indexOf('\n') != -1 || value.contains("\\n")) {
+                    split(renderer.apply(template), lore);
+                    return;
+                }
+                rendered[i][j] = value;
+            }
+        }
+
+        // Splitting removes trailing empty strings. Parts that rendered to an empty string are removed the same way.
+        int lines = rendered.length;
+        if (hasNewLines) {
+            while (lines > 0 && !hasMarkers[lines - 1] && rendered[lines - 1][0].isEmpty()) {
+                lines--;
+            }
+        }
+
+        for (int i = 0; i < lines; i++) {
+            int markers = rendered[i].length;
+            if (hasMarkers[i]) {
+                while (markers > 0 && rendered[i][markers - 1].isEmpty()) {
+                    markers--;
+                }
+            }
+
+            for (int j = 0; j < markers; j++) {
+                lore.add(rendered[i][j]);
+            }
+        }
+    }
+
+    private static void split(final @NotNull String line, final @NotNull List<String> lore) {
+        for (final String split : line.split("\n")) {
+            Collections.addAll(lore, NEW_LINE_MARKER.split(split));
+        }
+    }
+}
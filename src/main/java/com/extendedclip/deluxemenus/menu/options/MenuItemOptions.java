@@ -3,6 +3,7 @@ package com.extendedclip.deluxemenus.menu.options;
 import com.extendedclip.deluxemenus.action.ClickHandler;
 import com.extendedclip.deluxemenus.config.DeluxeMenusConfig;
 import com.extendedclip.deluxemenus.requirement.RequirementList;
+import com.extendedclip.deluxemenus.utils.StringTemplate;
 import org.bukkit.DyeColor;
 import org.bukkit.block.banner.Pattern;
 import org.bukkit.enchantments.Enchantment;
@@ -18,6 +19,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 public class MenuItemOptions {
 
@@ -30,6 +32,9 @@ public class MenuItemOptions {
     private final String lightLevel;
     private final String displayName;
     private final List<String> lore;
+    private final StringTemplate displayNameTemplate;
+    private final List<LoreLine> loreLines;
+    private final int loreSize;
     private final DyeColor baseColor;
     private HeadType headType;
     private final String rgb;
@@ -93,6 +98,9 @@ public class MenuItemOptions {
         this.lightLevel = builder.lightLevel;
         this.displayName = builder.displayName;
         this.lore = builder.lore;
+        this.displayNameTemplate = builder.displayNameTemplate;
+        this.loreLines = builder.loreLines;
+        this.loreSize = builder.loreLines.stream().mapToInt(LoreLine::size).sum();
         this.hasLore = builder.hasLore;
         this.loreAppendMode = builder.loreAppendMode;
         this.baseColor = builder.baseColor;
@@ -178,6 +186,21 @@ public class MenuItemOptions {
         return lore;
     }
 
+    public @NotNull Optional<StringTemplate> displayNameTemplate() {
+        return Optional.ofNullable(displayNameTemplate);
+    }
+
+    public @NotNull List<LoreLine> loreLines() {
+        return loreLines;
+    }
+
+    /**
+     * @return the amount of lore lines the configured lore produces, unless its placeholders resolve to new lines
+     */
+    public int loreSize() {
+        return loreSize;
+    }
+
     public @NotNull Optional<DyeColor> baseColor() {
         return Optional.ofNullable(baseColor);
     }
@@ -419,6 +442,8 @@ public class MenuItemOptions {
         private String lightLevel;
         private String displayName;
         private List<String> lore = Collections.emptyList();
+        private StringTemplate displayNameTemplate;
+        private List<LoreLine> loreLines = Collections.emptyList();
         private DyeColor baseColor;
         private HeadType headType;
         private String rgb;
@@ -512,6 +537,7 @@ public class MenuItemOptions {
 
         public MenuItemOptionsBuilder displayName(final @Nullable String configDisplayName) {
             this.displayName = configDisplayName;
+            this.displayNameTemplate = configDisplayName == null ? null : StringTemplate.compile(configDisplayName);
             if (this.displayName != null) {
                 this.displayNameHasPlaceholders = DeluxeMenusConfig.containsPlaceholders(this.displayName);
             }
@@ -520,6 +546,9 @@ public class MenuItemOptions {
 
         public MenuItemOptionsBuilder lore(final @NotNull List<String> configLore) {
             this.lore = configLore;
+            this.loreLines = configLore.stream()
+                    .map(LoreLine::compile)
+                    .collect(Collectors.toUnmodifiableList());
             this.loreHasPlaceholders = configLore.stream().anyMatch(DeluxeMenusConfig::containsPlaceholders);
             return this;
         }
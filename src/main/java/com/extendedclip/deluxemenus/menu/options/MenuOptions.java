@@ -2,6 +2,7 @@ package com.extendedclip.deluxemenus.menu.options;
 
 import com.extendedclip.deluxemenus.action.ClickHandler;
 import com.extendedclip.deluxemenus.requirement.RequirementList;
+import com.extendedclip.deluxemenus.utils.StringTemplate;
 import org.bukkit.event.inventory.InventoryType;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -13,10 +14,13 @@ public class MenuOptions {
 
     private final String name;
     private final String title;
+    private final StringTemplate titleTemplate;
     private final InventoryType type;
     private final int size;
-    private final int updateInterval;
-    private final int refreshInterval;
+    private final long updateIntervalTicks;
+    private final long refreshIntervalTicks;
+    private final boolean adaptiveUpdateInterval;
+    private final long maxUpdateIntervalTicks;
     private final boolean refresh;
     private final boolean parsePlaceholdersInArguments;
     private final boolean parsePlaceholdersAfterArguments;
@@ -34,10 +38,13 @@ public class MenuOptions {
     private MenuOptions(final @NotNull MenuOptionsBuilder builder) {
         this.name = builder.name;
         this.title = builder.title;
+        this.titleTemplate = StringTemplate.compile(builder.title);
         this.type = builder.type;
         this.size = builder.size;
-        this.updateInterval = builder.updateInterval;
-        this.refreshInterval = builder.refreshInterval;
+        this.updateIntervalTicks = builder.updateIntervalTicks;
+        this.refreshIntervalTicks = builder.refreshIntervalTicks;
+        this.adaptiveUpdateInterval = builder.adaptiveUpdateInterval;
+        this.maxUpdateIntervalTicks = Math.max(builder.maxUpdateIntervalTicks, builder.updateIntervalTicks);
         this.refresh = builder.refresh;
         this.parsePlaceholdersInArguments = builder.parsePlaceholdersInArguments;
         this.parsePlaceholdersAfterArguments = builder.parsePlaceholdersAfterArguments;
@@ -65,6 +72,10 @@ public class MenuOptions {
         return this.title;
     }
 
+    public @NotNull StringTemplate titleTemplate() {
+        return this.titleTemplate;
+    }
+
     public @NotNull InventoryType type() {
         return this.type;
     }
@@ -73,12 +84,45 @@ public class MenuOptions {
         return this.size;
     }
 
+    /**
+     * @return the update interval in seconds, rounded up
+     * @deprecated use {@link #updateIntervalTicks()}, intervals can be configured in ticks
+     */
+    @Deprecated
     public int updateInterval() {
-        return this.updateInterval;
+        return (int) ((this.updateIntervalTicks + 19) / 20);
     }
 
+    /**
+     * @return the refresh interval in seconds, rounded up
+     * @deprecated use {@link #refreshIntervalTicks()}, intervals can be configured in ticks
+     */
+    @Deprecated
     public int refreshInterval() {
-        return this.refreshInterval;
+        return (int) ((this.refreshIntervalTicks + 19) / 20);
+    }
+
+    public long updateIntervalTicks() {
+        return this.updateIntervalTicks;
+    }
+
+    public long refreshIntervalTicks() {
+        return this.refreshIntervalTicks;
+    }
+
+    /**
+     * @return true if the update interval should grow while placeholder updates do not change anything, and go back to
+     * {@link #updateIntervalTicks()} as soon as they do
+     */
+    public boolean adaptiveUpdateInterval() {
+        return this.adaptiveUpdateInterval;
+    }
+
+    /**
+     * @return the longest interval, in ticks, an adaptive update interval can grow to
+     */
+    public long maxUpdateIntervalTicks() {
+        return this.maxUpdateIntervalTicks;
     }
 
     public boolean refresh() {
@@ -129,8 +173,10 @@ public class MenuOptions {
         return MenuOptions.builder(this.name, this.title)
                 .type(this.type)
                 .size(this.size)
-                .updateInterval(this.updateInterval)
-                .refreshInterval(this.refreshInterval)
+                .updateIntervalTicks(this.updateIntervalTicks)
+                .refreshIntervalTicks(this.refreshIntervalTicks)
+                .adaptiveUpdateInterval(this.adaptiveUpdateInterval)
+                .maxUpdateIntervalTicks(this.maxUpdateIntervalTicks)
                 .refresh(this.refresh)
                 .parsePlaceholdersInArguments(this.parsePlaceholdersInArguments)
                 .parsePlaceholdersAfterArguments(this.parsePlaceholdersAfterArguments)
@@ -150,8 +196,10 @@ public class MenuOptions {
         private String title;
         private InventoryType type = InventoryType.CHEST;
         private int size = 9;
-        private int updateInterval = 10;
-        private int refreshInterval = 10;
+        private long updateIntervalTicks = 200;
+        private long refreshIntervalTicks = 200;
+        private boolean adaptiveUpdateInterval = false;
+        private long maxUpdateIntervalTicks = 0;
         private boolean refresh;
         private boolean parsePlaceholdersInArguments = false;
         private boolean parsePlaceholdersAfterArguments = false;
@@ -192,12 +240,32 @@ public class MenuOptions {
         }
 
         public MenuOptionsBuilder updateInterval(final int updateInterval) {
-            this.updateInterval = updateInterval;
+            this.updateIntervalTicks = 20L * updateInterval;
             return this;
         }
 
         public MenuOptionsBuilder refreshInterval(final int refreshInterval) {
-            this.refreshInterval = refreshInterval;
+            this.refreshIntervalTicks = 20L * refreshInterval;
+            return this;
+        }
+
+        public MenuOptionsBuilder updateIntervalTicks(final long updateIntervalTicks) {
+            this.updateIntervalTicks = updateIntervalTicks;
+            return this;
+        }
+
+        public MenuOptionsBuilder refreshIntervalTicks(final long refreshIntervalTicks) {
+            this.refreshIntervalTicks = refreshIntervalTicks;
+            return this;
+        }
+
+        public MenuOptionsBuilder adaptiveUpdateInterval(final boolean adaptiveUpdateInterval) {
+            this.adaptiveUpdateInterval = adaptiveUpdateInterval;
+            return this;
+        }
+
+        public MenuOptionsBuilder maxUpdateIntervalTicks(final long maxUpdateIntervalTicks) {
+            this.maxUpdateIntervalTicks = maxUpdateIntervalTicks;
             return this;
         }
 
@@ -1,10 +1,13 @@
 package com.extendedclip.deluxemenus.placeholder;
 
 import com.extendedclip.deluxemenus.DeluxeMenus;
+import com.extendedclip.deluxemenus.cache.SimpleCache;
 import com.extendedclip.deluxemenus.menu.Menu;
 import com.extendedclip.deluxemenus.menu.options.MenuOptions;
 import com.extendedclip.deluxemenus.persistentmeta.DataType;
 import com.extendedclip.deluxemenus.utils.VersionHelper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import me.clip.placeholderapi.PlaceholderAPI;
 import me.clip.placeholderapi.PlaceholderAPIPlugin;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
@@ -15,10 +18,18 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
+import java.util.Locale;
 
-public class Expansion extends PlaceholderExpansion {
+public class Expansion extends PlaceholderExpansion implements SimpleCache {
+
+    // Parsed requests are kept per input, so other plugins polling the same placeholders don't parse them every time.
+    private static final int MAX_CACHED_REQUESTS = 1000;
+    private static final RequestHandler UNKNOWN_REQUEST = player -> null;
 
     private final DeluxeMenus plugin;
+    private final Cache<String, RequestHandler> requests = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_REQUESTS)
+            .build();
 
     public Expansion(@NotNull final DeluxeMenus instance) {
         this.plugin = instance;
@@ -50,6 +61,9 @@ public class Expansion extends PlaceholderExpansion {
                 "%deluxemenus_is_in_menu%",
                 "%deluxemenus_opened_menu%",
                 "%deluxemenus_last_menu%",
+                "%deluxemenus_placeholder_cache_hits%",
+                "%deluxemenus_placeholder_cache_misses%",
+                "%deluxemenus_placeholder_cache_hit_rate%",
                 "%deluxemenus_meta_has_value_<key>_[type]%",
                 "%deluxemenus_meta_<key>_<type>_[default-value]%"
         );
@@ -66,27 +80,54 @@ public class Expansion extends PlaceholderExpansion {
             return null;
         }
 
-        final String parsedInput = PlaceholderAPI.setBracketPlaceholders(onlinePlayer, input);
+        final String parsedInput = input.indexOf('{') == -1
+                ? input
+                : PlaceholderAPI.setBracketPlaceholders(onlinePlayer, input);
+
+        RequestHandler handler = requests.getIfPresent(parsedInput);
+        if (handler == null) {
+            handler = parseRequest(parsedInput);
+            requests.put(parsedInput, handler);
+        }
+
+        return handler.handle(onlinePlayer);
+    }
+
+    @Override
+    public void clearCache() {
+        requests.invalidateAll();
+    }
+
+    private @NotNull RequestHandler parseRequest(final @NotNull String parsedInput) {
         final String parsedInputLower = parsedInput.toLowerCase();
 
         switch (parsedInputLower) {
             case "is_in_menu": {
-                return getBooleanAsString(Menu.getMenuHolder(onlinePlayer).isPresent());
+                return player -> getBooleanAsString(Menu.getMenuHolder(player).isPresent());
             }
             case "opened_menu": {
-                return Menu.getOpenMenu(onlinePlayer).map(Menu::options).map(MenuOptions::name).orElse("");
+                return player -> Menu.getOpenMenu(player).map(Menu::options).map(MenuOptions::name).orElse("");
             }
             case "last_menu": {
-                return Menu.getLastMenu(onlinePlayer).map(Menu::options).map(MenuOptions::name).orElse("");
+                return player -> Menu.getLastMenu(player).map(Menu::options).map(MenuOptions::name).orElse("");
+            }
+            case "placeholder_cache_hits": {
+                return player -> String.valueOf(plugin.getPlaceholderCache().getHits());
+            }
+            case "placeholder_cache_misses": {
+                return player -> String.valueOf(plugin.getPlaceholderCache().getMisses());
+            }
+            case "placeholder_cache_hit_rate": {
+                return player -> String.format(Locale.ROOT, "%.2f", plugin.getPlaceholderCache().getHitRate());
             }
         }
 
         if (!parsedInputLower.startsWith("meta_")) {
-            return null;
+            return UNKNOWN_REQUEST;
         }
 
         if (!VersionHelper.IS_PDC_VERSION || plugin.getPersistentMetaHandler() == null) {
-            return null;
+            return UNKNOWN_REQUEST;
         }
 
         // %deluxemenus_meta_has_value_<key>_[type]%
@@ -95,60 +136,64 @@ public class Expansion extends PlaceholderExpansion {
             final String[] hasValueParts = hasValueInput.split("_", 2);
 
             if (hasValueParts.length < 1 || hasValueParts.length > 2) {
-                return null;
+                return UNKNOWN_REQUEST;
             }
 
             final NamespacedKey key = plugin.getPersistentMetaHandler().getKey(hasValueParts[0]);
             if (key == null) {
-                return getBooleanAsString(false);
+                return player -> getBooleanAsString(false);
             }
 
             if (hasValueParts.length == 1) {
-                return getBooleanAsString(plugin.getPersistentMetaHandler().hasMetaValue(onlinePlayer, key));
+                return player -> getBooleanAsString(plugin.getPersistentMetaHandler().hasMetaValue(player, key));
             }
 
             final DataType<?, ?> type = DataType.getSupportedTypeByName(hasValueParts[1]);
             if (type == null) {
-                return getBooleanAsString(false);
+                return player -> getBooleanAsString(false);
             }
 
-            return getBooleanAsString(plugin.getPersistentMetaHandler().hasMetaValue(onlinePlayer, key, type));
+            return player -> getBooleanAsString(plugin.getPersistentMetaHandler().hasMetaValue(player, key, type));
         }
 
         // %deluxemenus_meta_<key>_<type>_[default-value]%
         final String getValueInput = parsedInput.substring(5);
 
         if (!getValueInput.contains("_")) {
-            return null;
+            return UNKNOWN_REQUEST;
         }
 
         final String[] parts = getValueInput.split("_", 3);
 
         if (parts.length < 2) {
-            return null;
+            return UNKNOWN_REQUEST;
         }
 
         final NamespacedKey key = plugin.getPersistentMetaHandler().getKey(parts[0]);
         if (key == null) {
-            return getBooleanAsString(false);
+            return player -> getBooleanAsString(false);
         }
 
         final DataType<?, ?> type = DataType.getSupportedTypeByName(parts[1]);
         if (type == null) {
-            return getBooleanAsString(false);
+            return player -> getBooleanAsString(false);
         }
 
-        final Object result = plugin.getPersistentMetaHandler().getMetaValue(onlinePlayer, key, type);
-
-        if (result != null) {
-            return String.valueOf(result);
-        }
+        // return the default value if there is no meta value
+        final String defaultValue = parts.length > 2 ? parts[2] : "";
 
-        // return the default value
-        return parts.length > 2 ? parts[2] : "";
+        return player -> {
+            final Object result = plugin.getPersistentMetaHandler().getMetaValue(player, key, type);
+            return result != null ? String.valueOf(result) : defaultValue;
+        };
     }
 
     private @NotNull String getBooleanAsString(final boolean value) {
         return value ? PlaceholderAPIPlugin.booleanTrue() : PlaceholderAPIPlugin.booleanFalse();
     }
+
+    @FunctionalInterface
+    private interface RequestHandler {
+        @Nullable String handle(@NotNull Player player);
+    }
 }
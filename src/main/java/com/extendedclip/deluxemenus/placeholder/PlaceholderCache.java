@@ -0,0 +1,156 @@
+package com.extendedclip.deluxemenus.placeholder;
+
+import com.extendedclip.deluxemenus.DeluxeMenus;
+import com.extendedclip.deluxemenus.cache.SimpleCache;
+import com.extendedclip.deluxemenus.config.GeneralConfig;
+import com.extendedclip.deluxemenus.utils.StringUtils;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Caches the values of placeholders resolved by menus, per player.
+ * <br>
+ * How long a value is kept is configured per placeholder identifier (the part before the first underscore, eg.
+ * {@code vault} for {@code %vault_eco_balance%}) in config.yml. Placeholders without a time to live are always
+ * resolved through PlaceholderAPI.
+ */
+public class PlaceholderCache implements SimpleCache {
+
+    private final DeluxeMenus plugin;
+    private final Map<UUID, Map<String, Entry>> values = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public PlaceholderCache(final @NotNull DeluxeMenus plugin) {
+        this.plugin = plugin;
+    }
+
+    public boolean isEnabled() {
+        return plugin.getGeneralConfig().placeholderCacheEnabled();
+    }
+
+    /**
+     * Get the value of a single placeholder for a player, from the cache if a value that has not expired yet is
+     * available, or from PlaceholderAPI otherwise.
+     *
+     * @param player      the player to resolve the placeholder for
+     * @param placeholder the full placeholder, including the surrounding percent signs
+     * @return the value of the placeholder
+     */
+    public @NotNull String resolve(final @NotNull Player player, final @NotNull String placeholder) {
+        return resolve(player, placeholder, p -> StringUtils.replacePlaceholders(p, player));
+    }
+
+    /**
+     * Get the value of a single placeholder for a player, from the cache if a value that has not expired yet is
+     * available, or from the loader otherwise.
+     *
+     * @param player      the player to resolve the placeholder for
+     * @param placeholder the full placeholder, including the surrounding percent signs
+     * @param loader      the function used to resolve the placeholder if it is not cached
+     * @return the value of the placeholder
+     */
+    public @NotNull String resolve(final @NotNull Player player, final @NotNull String placeholder,
+                                   final @NotNull Function<String, String> loader) {
+        final long ttl = getTimeToLive(placeholder);
+        if (ttl <= 0) {
+            return loader.apply(placeholder);
+        }
+
+        final long now = System.currentTimeMillis();
+        final Map<String, Entry> playerValues = values.get(player.getUniqueId());
+        final Entry entry = playerValues == null ? null : playerValues.get(placeholder);
+
+        if (entry != null && entry.expiresAt > now) {
+            hits.increment();
+            return entry.value;
+        }
+
+        misses.increment();
+        final String value = loader.apply(placeholder);
+
+        // Don't keep values for players that already left, they would never be evicted.
+        if (player.isOnline()) {
+            values.computeIfAbsent(player.getUniqueId(), uuid -> new ConcurrentHashMap<>())
+                    .put(placeholder, new Entry(value, now + ttl));
+        }
+        return value;
+    }
+
+    /**
+     * Remove all cached values of a player.
+     *
+     * @param uuid the uuid of the player
+     */
+    public void invalidate(final @NotNull UUID uuid) {
+        values.remove(uuid);
+    }
+
+    @Override
+    public void clearCache() {
+        values.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the percentage of lookups that were served from the cache, or 0 if nothing was looked up yet
+     */
+    public double getHitRate() {
+        final long hits = getHits();
+        final long total = hits + getMisses();
+        return total == 0 ? 0 : hits * 100.0 / total;
+    }
+
+    public int size() {
+        return values.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private long getTimeToLive(final @NotNull String placeholder) {
+        final GeneralConfig config = plugin.getGeneralConfig();
+        if (!config.placeholderCacheEnabled()) {
+            return 0;
+        }
+
+        final Long ttl = config.placeholderCacheTimesToLive().get(getIdentifier(placeholder));
+        return ttl == null ? config.placeholderCacheDefaultTimeToLive() : ttl;
+    }
+
+    /**
+     * Get the identifier of a placeholder, the same way PlaceholderAPI gets it.
+     *
+     * @param placeholder the full placeholder, including the surrounding percent signs
+     * @return the lowercase identifier of the placeholder
+     */
+    public static @NotNull String getIdentifier(final @NotNull String placeholder) {
+        final int start = placeholder.startsWith("%") ? 1 : 0;
+        int end = placeholder.indexOf('_', start);
+        if (end == -1) {
+            end = placeholder.endsWith("%") ? placeholder.length() - 1 : placeholder.length();
+        }
+        return placeholder.substring(start, Math.max(start, end)).toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry {
+        private final String value;
+        private final long expiresAt;
+
+        private Entry(final @NotNull String value, final long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
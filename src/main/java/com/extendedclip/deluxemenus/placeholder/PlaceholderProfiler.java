@@ -0,0 +1,198 @@
+package com.extendedclip.deluxemenus.placeholder;
+
+import com.extendedclip.deluxemenus.DeluxeMenus;
+import com.extendedclip.deluxemenus.utils.DebugLevel;
+import com.extendedclip.deluxemenus.utils.LatencyHistogram;
+import com.extendedclip.deluxemenus.utils.StringUtils;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+/**
+ * Measures how long PlaceholderAPI takes to resolve the placeholders used by menus. Timings are kept per placeholder
+ * identifier and per menu since the profiler was last reset.
+ * <br>
+ * Timings are also collected per sampling window. When a window ends, the identifiers that took the most time during
+ * it are reported as the worst offenders.
+ */
+public class PlaceholderProfiler {
+
+    private static final String UNKNOWN_MENU = "unknown";
+
+    private final DeluxeMenus plugin;
+    private final Map<String, LatencyHistogram> identifiers = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> menus = new ConcurrentHashMap<>();
+
+    private volatile Map<String, LatencyHistogram> window = new ConcurrentHashMap<>();
+    private volatile long windowStart = System.nanoTime();
+    private volatile List<Entry> worstOffenders = Collections.emptyList();
+
+    public PlaceholderProfiler(final @NotNull DeluxeMenus plugin) {
+        this.plugin = plugin;
+    }
+
+    public boolean isEnabled() {
+        return plugin.getGeneralConfig().placeholderProfilerEnabled();
+    }
+
+    /**
+     * Resolve a single placeholder through PlaceholderAPI, timing it if the profiler is enabled.
+     *
+     * @param menuName    the name of the menu the placeholder is resolved for, can be null
+     * @param player      the player to resolve the placeholder for
+     * @param placeholder the full placeholder, including the surrounding percent signs
+     * @return the value of the placeholder
+     */
+    public @NotNull String resolve(final @Nullable String menuName, final @NotNull Player player,
+                                   final @NotNull String placeholder) {
+        if (!isEnabled()) {
+            return StringUtils.replacePlaceholders(placeholder, player);
+        }
+
+        final long start = System.nanoTime();
+        final String value = StringUtils.replacePlaceholders(placeholder, player);
+        final long end = System.nanoTime();
+
+        record(PlaceholderCache.getIdentifier(placeholder), menuName == null ? UNKNOWN_MENU : menuName, end - start, end);
+        return value;
+    }
+
+    private void record(final @NotNull String identifier, final @NotNull String menuName, final long nanos, final long now) {
+        identifiers.computeIfAbsent(identifier, key -> new LatencyHistogram()).record(nanos);
+        menus.computeIfAbsent(menuName, key -> new LatencyHistogram()).record(nanos);
+
+        final long windowNanos = TimeUnit.SECONDS.toNanos(Math.max(1, plugin.getGeneralConfig().placeholderProfilerWindowSeconds()));
+        if (now - windowStart >= windowNanos) {
+            endWindow(now, windowNanos);
+        }
+
+        window.computeIfAbsent(identifier, key -> new LatencyHistogram()).record(nanos);
+    }
+
+    private synchronized void endWindow(final long now, final long windowNanos) {
+        if (now - windowStart < windowNanos) {
+            return;
+        }
+
+        final Map<String, LatencyHistogram> ended = window;
+        window = new ConcurrentHashMap<>();
+        windowStart = now;
+
+        final List<Entry> offenders = sorted(ended).stream()
+                .limit(Math.max(0, plugin.getGeneralConfig().placeholderProfilerWorstOffenders()))
+                .collect(Collectors.toUnmodifiableList());
+        worstOffenders = offenders;
+
+        if (offenders.isEmpty()) {
+            return;
+        }
+
+        plugin.debug(
+                DebugLevel.MEDIUM,
+                Level.INFO,
+                "Slowest placeholder expansions in the last " + TimeUnit.NANOSECONDS.toSeconds(windowNanos) + " seconds: "
+                        + offenders.stream().map(Entry::toString).collect(Collectors.joining(", "))
+        );
+    }
+
+    public void reset() {
+        identifiers.clear();
+        menus.clear();
+        synchronized (this) {
+            window = new ConcurrentHashMap<>();
+            windowStart = System.nanoTime();
+            worstOffenders = Collections.emptyList();
+        }
+    }
+
+    /**
+     * @return the timings of each placeholder identifier, the most time consuming first
+     */
+    public @NotNull List<Entry> getIdentifiers() {
+        return sorted(identifiers);
+    }
+
+    /**
+     * @return the timings of each menu, the most time consuming first
+     */
+    public @NotNull List<Entry> getMenus() {
+        return sorted(menus);
+    }
+
+    /**
+     * @return the identifiers that took the most time during the last completed sampling window
+     */
+    public @NotNull List<Entry> getWorstOffenders() {
+        return worstOffenders;
+    }
+
+    private static @NotNull List<Entry> sorted(final @NotNull Map<String, LatencyHistogram> histograms) {
+        return histograms.entrySet().stream()
+                .map(entry -> new Entry(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparingLong(Entry::getTotalNanos).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * A snapshot of the timings of a single identifier or menu.
+     */
+    public static final class Entry {
+        private final String name;
+        private final long count;
+        private final long totalNanos;
+        private final long p50Nanos;
+        private final long p99Nanos;
+        private final long maxNanos;
+
+        private Entry(final @NotNull String name, final @NotNull LatencyHistogram histogram) {
+            this.name = name;
+            this.count = histogram.count();
+            this.totalNanos = histogram.totalNanos();
+            this.p50Nanos = histogram.percentileNanos(0.5);
+            this.p99Nanos = histogram.percentileNanos(0.99);
+            this.maxNanos = histogram.maxNanos();
+        }
+
+        public @NotNull String getName() {
+            return name;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getP50Nanos() {
+            return p50Nanos;
+        }
+
+        public long getP99Nanos() {
+            return p99Nanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (count: " + count
+                    + ", total: " + LatencyHistogram.formatMillis(totalNanos)
+                    + ", p50: " + LatencyHistogram.formatMillis(p50Nanos)
+                    + ", p99: " + LatencyHistogram.formatMillis(p99Nanos)
+                    + ", max: " + LatencyHistogram.formatMillis(maxNanos) + ")";
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.extendedclip.deluxemenus.requirement;
+
+import com.extendedclip.deluxemenus.DeluxeMenus;
+import com.extendedclip.deluxemenus.menu.MenuHolder;
+import com.extendedclip.deluxemenus.requirement.expression.Expression;
+import com.extendedclip.deluxemenus.requirement.expression.ExpressionException;
+import com.extendedclip.deluxemenus.utils.DebugLevel;
+import java.util.logging.Level;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public class ExpressionRequirement extends Requirement {
+
+  private final DeluxeMenus plugin;
+  private final Expression expression;
+
+  public ExpressionRequirement(final @NotNull DeluxeMenus plugin, final @NotNull Expression expression) {
+    this.plugin = plugin;
+    this.expression = expression;
+  }
+
+  @Override
+  public @Nullable String getResultKey(@NotNull MenuHolder holder) {
+    return resultKey("expression", expression.raw(), expression.render(holder));
+  }
+
+  @Override
+  public boolean evaluate(MenuHolder holder) {
+    final Object result;
+    try {
+      result = expression.evaluate(holder);
+    } catch (final ExpressionException exception) {
+      plugin.debug(
+          DebugLevel.HIGHEST,
+          Level.WARNING,
+          "Error in requirement expression <" + expression.raw() + ">: " + exception.getMessage()
+      );
+      return false;
+    }
+
+    if (!(result instanceof Boolean)) {
+      plugin.debug(
+          DebugLevel.HIGHEST,
+          Level.WARNING,
+          "Requirement expression <" + expression.raw() + "> does not return a boolean!"
+      );
+      return false;
+    }
+
+    return (boolean) result;
+  }
+}
@@ -2,32 +2,46 @@ package com.extendedclip.deluxemenus.requirement;
 
 import com.extendedclip.deluxemenus.DeluxeMenus;
 import com.extendedclip.deluxemenus.menu.MenuHolder;
-import com.extendedclip.deluxemenus.utils.ExpUtils;
+import com.extendedclip.deluxemenus.menu.ViewerSnapshot;
+import com.extendedclip.deluxemenus.utils.StringTemplate;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class HasExpRequirement extends Requirement {
 
     private final DeluxeMenus plugin;
     private final boolean invert;
     private final boolean level;
-    private final String amt;
+    private final StringTemplate amt;
 
     public HasExpRequirement(@NotNull final DeluxeMenus plugin, String amt, boolean invert, boolean level) {
         this.plugin = plugin;
-        this.amt = amt;
+        this.amt = StringTemplate.compile(amt);
         this.invert = invert;
         this.level = level;
     }
 
+    @Override
+    public @Nullable String getResultKey(final @NotNull MenuHolder holder) {
+        return resultKey("has exp", holder.render(amt), level, invert);
+    }
+
+    @Override
+    public void prefetch(final @NotNull MenuHolder holder) {
+        holder.getViewerSnapshot();
+    }
+
     @Override
     public boolean evaluate(MenuHolder holder) {
         int amount;
-        int has = level ? holder.getViewer().getLevel() : ExpUtils.getTotalExperience(holder.getViewer());
+        final ViewerSnapshot viewer = holder.getViewerSnapshot();
+        int has = level ? viewer.getLevel() : viewer.getTotalExperience();
+        final String expected = holder.render(amt);
         try {
-            amount = Integer.parseInt(holder.setPlaceholdersAndArguments(amt));
+            amount = Integer.parseInt(expected);
         } catch (final Exception exception) {
             plugin.printStacktrace(
-                "Invalid amount found for has exp requirement: " + holder.setPlaceholdersAndArguments(amt),
+                "Invalid amount found for has exp requirement: " + expected,
                 exception
             );
             return false;
@@ -2,8 +2,10 @@ package com.extendedclip.deluxemenus.requirement;
 
 import com.extendedclip.deluxemenus.DeluxeMenus;
 import com.extendedclip.deluxemenus.hooks.ItemHook;
+import com.extendedclip.deluxemenus.menu.InventorySnapshot;
 import com.extendedclip.deluxemenus.menu.MenuHolder;
 import com.extendedclip.deluxemenus.requirement.wrappers.ItemWrapper;
+import com.extendedclip.deluxemenus.utils.StringTemplate;
 import com.extendedclip.deluxemenus.utils.StringUtils;
 import com.extendedclip.deluxemenus.utils.VersionHelper;
 import org.bukkit.Color;
@@ -15,6 +17,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 @SuppressWarnings("UnstableApiUsage")
@@ -24,10 +27,43 @@ public class HasItemRequirement extends Requirement {
     private final ItemWrapper wrapper;
     private final boolean invert;
 
+    private final ItemTextMatcher nameMatcher;
+    private final ItemTextMatcher loreListMatcher;
+    private final ItemTextMatcher loreMatcher;
+    // The expected model data when it has no arguments or placeholders.
+    private final ModelData constantModelData;
+
     public HasItemRequirement(final DeluxeMenus plugin, final ItemWrapper wrapper, final boolean invert) {
         this.plugin = plugin;
         this.wrapper = wrapper;
         this.invert = invert;
+
+        this.nameMatcher = wrapper.getName() == null ? null
+                : ItemTextMatcher.of(wrapper.getName(), wrapper.checkNameContains(), wrapper.checkNameIgnoreCase());
+        this.loreListMatcher = wrapper.getLoreList() == null ? null
+                : ItemTextMatcher.of(wrapper.getLoreList(), wrapper.checkLoreContains(), wrapper.checkLoreIgnoreCase());
+        this.loreMatcher = wrapper.getLore() == null ? null
+                : ItemTextMatcher.of(wrapper.getLore(), wrapper.checkLoreContains(), wrapper.checkLoreIgnoreCase());
+        this.constantModelData = constantModelData(wrapper.getCustomModelDataComponent());
+    }
+
+    private static ModelData constantModelData(@NotNull final com.extendedclip.deluxemenus.menu.options.CustomModelDataComponent modelData) {
+        if (isEmptyModelData(modelData) || !isConstant(modelData.colors()) || !isConstant(modelData.flags())
+                || !isConstant(modelData.floats()) || !isConstant(modelData.strings())) {
+            return null;
+        }
+
+        try {
+            return new ModelData(modelData, UnaryOperator.identity());
+        } catch (NumberFormatException e) {
+            // Invalid floats fail when the requirement is evaluated, like they did before.
+            return null;
+        }
+    }
+
+    @Override
+    public void prefetch(@NotNull MenuHolder holder) {
+        holder.getInventorySnapshot();
     }
 
     @Override
@@ -35,6 +71,7 @@ public class HasItemRequirement extends Requirement {
         String materialName = holder.setPlaceholdersAndArguments(wrapper.getMaterial());
         Material material = DeluxeMenus.MATERIALS.get(materialName.toUpperCase());
         ItemHook pluginHook = null;
+        String identifier = null;
         if (material == null) {
             pluginHook = plugin.getItemHooks().values()
                     .stream()
@@ -42,42 +79,61 @@ public class HasItemRequirement extends Requirement {
                     .findFirst()
                     .orElse(null);
             if (pluginHook == null) return invert;
+            identifier = holder.setPlaceholdersAndArguments(wrapper.getMaterial().substring(pluginHook.getPrefix().length()));
         }
 
-        if (material == Material.AIR) return invert == (holder.getViewer().getInventory().firstEmpty() == -1);
+        final InventorySnapshot inventory = holder.getInventorySnapshot();
 
-        ItemStack[] armor = wrapper.checkArmor() ? holder.getViewer().getInventory().getArmorContents() : null;
-        ItemStack[] offHand = wrapper.checkOffhand() ? holder.getViewer().getInventory().getExtraContents() : null;
-        ItemStack[] inventory = holder.getViewer().getInventory().getStorageContents();
+        if (material == Material.AIR) return invert == inventory.isFull();
 
-        int total = 0;
-        for (ItemStack itemToCheck : inventory) {
-            if (!isRequiredItem(itemToCheck, holder, material, pluginHook)) continue;
-            total += itemToCheck.getAmount();
+        final Expected expected = checksTypeOnly() ? null : new Expected(holder);
+
+        int total = count(inventory, InventorySnapshot.Area.STORAGE, material, pluginHook, identifier, expected);
+        if (wrapper.checkOffhand()) {
+            total += count(inventory, InventorySnapshot.Area.EXTRA, material, pluginHook, identifier, expected);
+        }
+        if (wrapper.checkArmor()) {
+            total += count(inventory, InventorySnapshot.Area.ARMOR, material, pluginHook, identifier, expected);
         }
 
-        if (offHand != null) {
-            for (ItemStack itemToCheck : offHand) {
-                if (!isRequiredItem(itemToCheck, holder, material, pluginHook)) continue;
-                total += itemToCheck.getAmount();
-            }
+        return invert == (total < wrapper.getAmount());
+    }
+
+    /**
+     * Count the matching items of an area. Items only checked by material or hook identifier are counted from the
+     * snapshot's totals, anything else is compared item by item.
+     */
+    private int count(InventorySnapshot inventory, InventorySnapshot.Area area, Material material,
+                      ItemHook pluginHook, String identifier, Expected expected) {
+        if (expected == null) {
+            return pluginHook != null
+                    ? inventory.getHookTotal(area, pluginHook, identifier)
+                    : inventory.getTotal(area, material);
         }
 
-        if (armor != null) {
-            for (ItemStack itemToCheck : armor) {
-                if (!isRequiredItem(itemToCheck, holder, material, pluginHook)) continue;
-                total += itemToCheck.getAmount();
-            }
+        int total = 0;
+        for (ItemStack itemToCheck : pluginHook != null ? inventory.getItems(area) : inventory.getItems(area, material)) {
+            if (!isRequiredItem(itemToCheck, expected, material, pluginHook, identifier)) continue;
+            total += itemToCheck.getAmount();
         }
+        return total;
+    }
 
-        return invert == (total < wrapper.getAmount());
+    private boolean checksTypeOnly() {
+        return !wrapper.hasData()
+                && !wrapper.isStrict()
+                && wrapper.getCustomData() == 0
+                && wrapper.getName() == null
+                && wrapper.getLore() == null
+                && wrapper.getLoreList() == null
+                && isEmptyModelData(wrapper.getCustomModelDataComponent());
     }
 
-    private boolean isRequiredItem(ItemStack itemToCheck, MenuHolder holder, Material material, ItemHook pluginHook) {
+    private boolean isRequiredItem(ItemStack itemToCheck, Expected expected, Material material, ItemHook pluginHook, String identifier) {
         if (itemToCheck == null || itemToCheck.getType() == Material.AIR) return false;
 
         if (pluginHook != null) {
-            if (!pluginHook.itemMatchesIdentifiers(itemToCheck, holder.setPlaceholdersAndArguments(wrapper.getMaterial().substring(pluginHook.getPrefix().length()))))
+            if (!pluginHook.itemMatchesIdentifiers(itemToCheck, identifier))
                 return false;
         } else if (wrapper.getMaterial() != null && itemToCheck.getType() != material) return false;
         if (wrapper.hasData() && itemToCheck.getDurability() != wrapper.getData()) return false;
@@ -114,60 +170,27 @@ public class HasItemRequirement extends Requirement {
                 }
             }
 
-            if (VersionHelper.IS_CUSTOM_MODEL_DATA_COMPONENT && !isEmptyModelData(wrapper.getCustomModelDataComponent()) && !itemModelComponentContains(holder, metaToCheck.getCustomModelDataComponent(), wrapper.getCustomModelDataComponent())) {
+            final ModelData modelData = expected.modelData();
+            if (modelData != null && !modelData.isContainedIn(metaToCheck.getCustomModelDataComponent())) {
                 return false;
             }
 
-            if (wrapper.getName() != null) {
+            // Names and lore are only compared once the cheaper checks above passed.
+            if (nameMatcher != null) {
                 if (!metaToCheck.hasDisplayName()) return false;
-
-                String name = StringUtils.color(holder.setPlaceholdersAndArguments(wrapper.getName()));
-                String nameToCheck = StringUtils.color(holder.setPlaceholdersAndArguments(metaToCheck.getDisplayName()));
-
-                if (wrapper.checkNameContains() && wrapper.checkNameIgnoreCase()) {
-                    if (!org.apache.commons.lang3.StringUtils.containsIgnoreCase(nameToCheck, name)) return false;
-                } else if (wrapper.checkNameContains()) {
-                    if (!nameToCheck.contains(name)) return false;
-                } else if (wrapper.checkNameIgnoreCase()) {
-                    if (!nameToCheck.equalsIgnoreCase(name)) return false;
-                } else if (!nameToCheck.equals(name)) {
-                    return false;
-                }
+                if (!nameMatcher.matches(expected.name(), ItemTextMatcher.color(metaToCheck.getDisplayName()))) return false;
             }
 
-            if (wrapper.getLoreList() != null) {
-                List<String> loreX = metaToCheck.getLore();
-                if (loreX == null) return false;
-
-                String lore = wrapper.getLoreList().stream().map(holder::setPlaceholdersAndArguments).map(StringUtils::color).collect(Collectors.joining("&&"));
-                String loreToCheck = loreX.stream().map(holder::setPlaceholdersAndArguments).map(StringUtils::color).collect(Collectors.joining("&&"));
-
-                if (wrapper.checkLoreContains() && wrapper.checkLoreIgnoreCase()) {
-                    if (!org.apache.commons.lang3.StringUtils.containsIgnoreCase(loreToCheck, lore)) return false;
-                } else if (wrapper.checkLoreContains()) {
-                    if (!loreToCheck.contains(lore)) return false;
-                } else if (wrapper.checkLoreIgnoreCase()) {
-                    if (!loreToCheck.equalsIgnoreCase(lore)) return false;
-                } else if (!loreToCheck.equals(lore)) {
-                    return false;
-                }
+            if (loreListMatcher == null && loreMatcher == null) {
+                return true;
             }
 
-            if (wrapper.getLore() != null) {
-                List<String> loreX = metaToCheck.getLore();
-                if (loreX == null) return false;
+            List<String> loreX = metaToCheck.getLore();
+            if (loreX == null) return false;
 
-                String lore = StringUtils.color(holder.setPlaceholdersAndArguments(wrapper.getLore()));
-                String loreToCheck = loreX.stream().map(holder::setPlaceholdersAndArguments).map(StringUtils::color).collect(Collectors.joining("&&"));
-
-                if (wrapper.checkLoreContains() && wrapper.checkLoreIgnoreCase()) {
-                    return org.apache.commons.lang3.StringUtils.containsIgnoreCase(loreToCheck, lore);
-                } else if (wrapper.checkLoreContains()) {
-                    return loreToCheck.contains(lore);
-                } else if (wrapper.checkLoreIgnoreCase()) {
-                    return loreToCheck.equalsIgnoreCase(lore);
-                } else return loreToCheck.equals(lore);
-            }
+            String loreToCheck = ItemTextMatcher.colorItemText(loreX);
+            if (loreListMatcher != null && !loreListMatcher.matches(expected.loreList(), loreToCheck)) return false;
+            if (loreMatcher != null) return loreMatcher.matches(expected.lore(), loreToCheck);
         }
         return true;
     }
@@ -176,67 +199,108 @@ public class HasItemRequirement extends Requirement {
         return modelData.getColors().isEmpty() && modelData.getFlags().isEmpty() && modelData.getFloats().isEmpty() && modelData.getStrings().isEmpty();
     }
 
-    private boolean isEmptyModelData(@NotNull final com.extendedclip.deluxemenus.menu.options.CustomModelDataComponent modelData) {
+    private static boolean isEmptyModelData(@NotNull final com.extendedclip.deluxemenus.menu.options.CustomModelDataComponent modelData) {
         return modelData.colors().isEmpty() && modelData.flags().isEmpty() && modelData.floats().isEmpty() && modelData.strings().isEmpty();
     }
 
-    private boolean itemModelComponentContains(MenuHolder holder, @NotNull final CustomModelDataComponent modelData, @NotNull final com.extendedclip.deluxemenus.menu.options.CustomModelDataComponent wrapper) {
-        if (!wrapper.colors().isEmpty()) {
-            final List<Color> colors = wrapper.colors()
-                    .stream()
-                    .map(holder::setPlaceholdersAndArguments)
-                    .map(StringUtils::parseRGBColor)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
+    private static boolean isConstant(@NotNull final List<String> values) {
+        for (String value : values) {
+            if (!StringTemplate.compile(value).isConstant()) return false;
+        }
+        return true;
+    }
 
-            for (Color color : colors) {
-                if (!modelData.getColors().contains(color)) {
-                    return false;
-                }
+    /**
+     * The expected name, lore and model data of an evaluation. Each of them is resolved when the first item gets far
+     * enough to be compared against it, and reused for the remaining items. Nothing is resolved if no item passes the
+     * cheaper checks.
+     */
+    private final class Expected {
+        private final MenuHolder holder;
+        private String name;
+        private String loreList;
+        private String lore;
+        private ModelData modelData;
+        private boolean modelDataResolved;
+
+        private Expected(MenuHolder holder) {
+            this.holder = holder;
+        }
+
+        private String name() {
+            if (name == null) {
+                name = nameMatcher.expected(holder);
             }
+            return name;
         }
 
-        if (!wrapper.flags().isEmpty()) {
-            final List<Boolean> flags = wrapper.flags()
-                    .stream()
-                    .map(holder::setPlaceholdersAndArguments)
-                    .map(Boolean::parseBoolean)
-                    .collect(Collectors.toList());
+        private String loreList() {
+            if (loreList == null) {
+                loreList = loreListMatcher.expected(holder);
+            }
+            return loreList;
+        }
 
-            for (Boolean flag : flags) {
-                if (!modelData.getFlags().contains(flag)) {
-                    return false;
-                }
+        private String lore() {
+            if (lore == null) {
+                lore = loreMatcher.expected(holder);
             }
+            return lore;
         }
 
-        if (!wrapper.floats().isEmpty()) {
-            final List<Float> floats = wrapper.floats()
-                    .stream()
-                    .map(holder::setPlaceholdersAndArguments)
-                    .map(Float::parseFloat)
-                    .collect(Collectors.toList());
+        private ModelData modelData() {
+            if (modelDataResolved) {
+                return modelData;
+            }
 
-            for (Float floatValue : floats) {
-                if (!modelData.getFloats().contains(floatValue)) {
-                    return false;
-                }
+            if (VersionHelper.IS_CUSTOM_MODEL_DATA_COMPONENT && !isEmptyModelData(wrapper.getCustomModelDataComponent())) {
+                modelData = constantModelData != null
+                        ? constantModelData
+                        : new ModelData(wrapper.getCustomModelDataComponent(), holder::setPlaceholdersAndArguments);
             }
+            modelDataResolved = true;
+            return modelData;
         }
+    }
 
-        if (!wrapper.strings().isEmpty()) {
-            final List<String> strings = wrapper.strings()
+    /**
+     * The custom model data an item is expected to contain, parsed from the configured values.
+     */
+    private static final class ModelData {
+        private final List<Color> colors;
+        private final List<Boolean> flags;
+        private final List<Float> floats;
+        private final List<String> strings;
+
+        private ModelData(@NotNull final com.extendedclip.deluxemenus.menu.options.CustomModelDataComponent wrapper,
+                          @NotNull final UnaryOperator<String> resolver) {
+            this.colors = wrapper.colors()
                     .stream()
-                    .map(holder::setPlaceholdersAndArguments)
+                    .map(resolver)
+                    .map(StringUtils::parseRGBColor)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            this.flags = wrapper.flags()
+                    .stream()
+                    .map(resolver)
+                    .map(Boolean::parseBoolean)
+                    .collect(Collectors.toList());
+            this.floats = wrapper.floats()
+                    .stream()
+                    .map(resolver)
+                    .map(Float::parseFloat)
+                    .collect(Collectors.toList());
+            this.strings = wrapper.strings()
+                    .stream()
+                    .map(resolver)
                     .collect(Collectors.toList());
-
-            for (String string : strings) {
-                if (!modelData.getStrings().contains(string)) {
-                    return false;
-                }
-            }
         }
 
-        return true;
+        private boolean isContainedIn(@NotNull final CustomModelDataComponent modelData) {
+            return modelData.getColors().containsAll(colors)
+                    && modelData.getFlags().containsAll(flags)
+                    && modelData.getFloats().containsAll(floats)
+                    && modelData.getStrings().containsAll(strings);
+        }
     }
 }
@@ -3,9 +3,11 @@ package com.extendedclip.deluxemenus.requirement;
 import com.extendedclip.deluxemenus.DeluxeMenus;
 import com.extendedclip.deluxemenus.menu.MenuHolder;
 import com.extendedclip.deluxemenus.persistentmeta.DataType;
+import com.extendedclip.deluxemenus.utils.StringTemplate;
 import org.bukkit.NamespacedKey;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class HasMetaRequirement extends Requirement {
 
@@ -14,15 +16,36 @@ public class HasMetaRequirement extends Requirement {
     private final String value;
     private final String typeName;
     private final boolean invert;
+    private final boolean constantKey;
 
     public HasMetaRequirement(@NotNull final DeluxeMenus plugin, String key, String typeName, String value, boolean invert) {
         this.plugin = plugin;
         this.key = key;
+        this.constantKey = StringTemplate.compile(key).isConstant();
         this.typeName = typeName.toUpperCase();
         this.value = value;
         this.invert = invert;
     }
 
+    @Override
+    public @Nullable String getResultKey(final @NotNull MenuHolder holder) {
+        return resultKey("has meta", holder.setPlaceholdersAndArguments(key), typeName,
+                holder.setPlaceholdersAndArguments(value), invert);
+    }
+
+    @Override
+    public void prefetch(final @NotNull MenuHolder holder) {
+        if (!constantKey || holder.getViewer() == null) {
+            return;
+        }
+
+        final NamespacedKey namespacedKey = plugin.getPersistentMetaHandler().getKey(key);
+        final DataType<?, ?> type = DataType.getSupportedTypeByName(typeName);
+        if (namespacedKey != null && type != null) {
+            holder.getMetaValue(namespacedKey, type);
+        }
+    }
+
     @Override
     public boolean evaluate(MenuHolder holder) {
         final Player player = holder.getViewer();
@@ -41,7 +64,7 @@ public class HasMetaRequirement extends Requirement {
             return invert;
         }
 
-        final Object metaValue = plugin.getPersistentMetaHandler().getMetaValue(player, namespacedKey, type);
+        final Object metaValue = holder.getMetaValue(namespacedKey, type);
         if (metaValue == null) {
             return invert;
         }
@@ -2,20 +2,27 @@ package com.extendedclip.deluxemenus.requirement;
 
 import com.extendedclip.deluxemenus.DeluxeMenus;
 import com.extendedclip.deluxemenus.menu.MenuHolder;
+import com.extendedclip.deluxemenus.utils.StringTemplate;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class HasMoneyRequirement extends Requirement {
 
   private final DeluxeMenus plugin;
   private final boolean invert;
-  private final String placeholder;
-  private double amount;
+  private final StringTemplate placeholder;
+  private final double amount;
 
   public HasMoneyRequirement(@NotNull final DeluxeMenus plugin, double amount, boolean invert, String placeholder) {
     this.plugin = plugin;
     this.amount = amount;
     this.invert = invert;
-    this.placeholder = placeholder;
+    this.placeholder = placeholder == null ? null : StringTemplate.compile(placeholder);
+  }
+
+  @Override
+  public @Nullable String getResultKey(@NotNull MenuHolder holder) {
+    return resultKey("has money", placeholder == null ? amount : holder.render(placeholder), invert);
   }
 
   @Override
@@ -24,21 +31,22 @@ public class HasMoneyRequirement extends Requirement {
       return false;
     }
 
+    double amount = this.amount;
     if (placeholder != null) {
+      final String expected = holder.render(placeholder);
       try {
-        String expected = holder.setPlaceholdersAndArguments(placeholder);
         amount = Double.parseDouble(expected);
       } catch (final NumberFormatException exception) {
         plugin.printStacktrace(
-            "Invalid amount found for has money requirement: " + holder.setPlaceholdersAndArguments(placeholder),
+            "Invalid amount found for has money requirement: " + expected,
             exception
         );
       }
     }
     if (invert) {
-      return !plugin.getVault().hasEnough(holder.getViewer(), amount);
+      return !plugin.getVault().hasEnough(holder, amount);
     } else {
-      return plugin.getVault().hasEnough(holder.getViewer(), amount);
+      return plugin.getVault().hasEnough(holder, amount);
     }
   }
 }
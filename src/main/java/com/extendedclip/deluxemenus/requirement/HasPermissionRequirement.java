@@ -1,24 +1,39 @@
 package com.extendedclip.deluxemenus.requirement;
 
 import com.extendedclip.deluxemenus.menu.MenuHolder;
+import com.extendedclip.deluxemenus.utils.StringTemplate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class HasPermissionRequirement extends Requirement {
 
-  private final String perm;
+  private final StringTemplate perm;
   private final boolean invert;
 
   public HasPermissionRequirement(String permission, boolean invert) {
-    this.perm = permission;
+    this.perm = StringTemplate.compile(permission);
     this.invert = invert;
   }
 
+  @Override
+  public @Nullable String getResultKey(@NotNull MenuHolder holder) {
+    return resultKey("has permission", holder.render(perm), invert);
+  }
+
+  @Override
+  public void prefetch(@NotNull MenuHolder holder) {
+    if (perm.isConstant()) {
+      holder.hasPermission(perm.raw());
+    }
+  }
+
   @Override
   public boolean evaluate(MenuHolder holder) {
-    String check = holder.setPlaceholdersAndArguments(perm);
+    String check = holder.render(perm);
     if (invert) {
-      return !holder.getViewer().hasPermission(check);
+      return !holder.hasPermission(check);
     } else {
-      return holder.getViewer().hasPermission(check);
+      return holder.hasPermission(check);
     }
   }
 
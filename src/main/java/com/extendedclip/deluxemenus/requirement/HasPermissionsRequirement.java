@@ -1,28 +1,56 @@
 package com.extendedclip.deluxemenus.requirement;
 
 import com.extendedclip.deluxemenus.menu.MenuHolder;
+import com.extendedclip.deluxemenus.utils.StringTemplate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class HasPermissionsRequirement extends Requirement {
 
-    private final List<String> permissions;
+    private final List<StringTemplate> permissions;
     private final int minimum;
     private final boolean invert;
 
     public HasPermissionsRequirement(List<String> permissions, int minimum, boolean invert) {
-        this.permissions = permissions;
+        this.permissions = permissions.stream()
+                .map(StringTemplate::compile)
+                .collect(Collectors.toList());
         this.minimum = minimum;
         this.invert = invert;
     }
 
+    @Override
+    public @Nullable String getResultKey(final @NotNull MenuHolder holder) {
+        final Object[] parts = new Object[permissions.size() + 3];
+        parts[0] = "has permissions";
+        parts[1] = minimum;
+        parts[2] = invert;
+        for (int i = 0; i < permissions.size(); i++) {
+            parts[i + 3] = holder.render(permissions.get(i));
+        }
+        return resultKey(parts);
+    }
+
+    @Override
+    public void prefetch(final @NotNull MenuHolder holder) {
+        for (final StringTemplate permission : permissions) {
+            if (permission.isConstant()) {
+                holder.hasPermission(permission.raw());
+            }
+        }
+    }
+
     @Override
     public boolean evaluate(MenuHolder holder) {
-        final int count = permissions.stream()
-                .map(holder::setPlaceholdersAndArguments)
-                .map(holder.getViewer()::hasPermission)
-                .mapToInt(hasPermission -> hasPermission ? 1 : 0)
-                .sum();
+        int count = 0;
+        for (final StringTemplate permission : permissions) {
+            if (holder.hasPermission(holder.render(permission))) {
+                count++;
+            }
+        }
         return invert
                 ? count + minimum <= permissions.size()
                 : count >= minimum;
@@ -1,25 +1,41 @@
 package com.extendedclip.deluxemenus.requirement;
 
+import com.extendedclip.deluxemenus.DeluxeMenus;
 import com.extendedclip.deluxemenus.menu.MenuHolder;
+import com.extendedclip.deluxemenus.utils.StringTemplate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class InputResultRequirement extends Requirement {
 
-  private final String input;
-  private final String result;
+  private final StringTemplate input;
+  private final StringTemplate result;
   private final RequirementType type;
 
   public InputResultRequirement(RequirementType type, String input, String result) {
-    this.input = input;
-    this.result = result;
+    this.input = StringTemplate.compile(input);
+    this.result = StringTemplate.compile(result);
     this.type = type;
   }
 
   @Override
-  public boolean evaluate(MenuHolder holder) {
+  public @Nullable String getResultKey(@NotNull MenuHolder holder) {
+    return resultKey(type, holder.render(this.input), holder.render(this.result));
+  }
 
-    String parsedInput = holder.setPlaceholdersAndArguments(this.input);
-    String parsedResult = holder.setPlaceholdersAndArguments(this.result);
+  @Override
+  public boolean evaluate(MenuHolder holder) {
+    return matches(type, holder.render(this.input), holder.render(this.result), holder.getPlugin());
+  }
 
+  /**
+   * Compare a rendered input and result.
+   *
+   * @param plugin the plugin to report invalid numbers to, or null to not report them
+   * @return true if the input matches the result
+   */
+  public static boolean matches(@NotNull RequirementType type, @NotNull String parsedInput, @NotNull String parsedResult,
+      @Nullable DeluxeMenus plugin) {
     switch (type) {
       case STRING_CONTAINS:
         return parsedInput.contains(parsedResult);
@@ -43,20 +59,24 @@ public class InputResultRequirement extends Requirement {
     try {
       in = Double.parseDouble(parsedInput);
     } catch (final NumberFormatException exception) {
-      holder.getPlugin().printStacktrace(
-         "Input for comparison requirement is an invalid number: " + parsedInput,
-          exception
-      );
+      if (plugin != null) {
+        plugin.printStacktrace(
+            "Input for comparison requirement is an invalid number: " + parsedInput,
+            exception
+        );
+      }
       return false;
     }
 
     try {
       res = Double.parseDouble(parsedResult);
     } catch (final NumberFormatException exception) {
-      holder.getPlugin().printStacktrace(
-          "Output for comparison requirement is an invalid number: " + parsedResult,
-          exception
-      );
+      if (plugin != null) {
+        plugin.printStacktrace(
+            "Output for comparison requirement is an invalid number: " + parsedResult,
+            exception
+        );
+      }
       return false;
     }
 
@@ -2,6 +2,8 @@ package com.extendedclip.deluxemenus.requirement;
 
 import com.extendedclip.deluxemenus.menu.MenuHolder;
 import org.bukkit.Location;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class IsNearRequirement extends Requirement {
 
@@ -15,14 +17,25 @@ public class IsNearRequirement extends Requirement {
     this.invert = invert;
   }
 
+  @Override
+  public @Nullable String getResultKey(@NotNull MenuHolder holder) {
+    return resultKey("is near", location, distance, invert);
+  }
+
+  @Override
+  public void prefetch(@NotNull MenuHolder holder) {
+    holder.getViewerSnapshot();
+  }
+
   @Override
   public boolean evaluate(MenuHolder holder) {
     if (holder.getViewer() == null) {
       return false;
     }
+    final Location viewerLocation = holder.getViewerSnapshot().getLocation();
     boolean withinRange = false;
-    if (holder.getViewer().getWorld().getName().equals(location.getWorld().getName())) {
-      withinRange = holder.getViewer().getLocation().distance(location) < distance;
+    if (viewerLocation.getWorld().getName().equals(location.getWorld().getName())) {
+      withinRange = viewerLocation.distance(location) < distance;
     }
     return invert ? !withinRange : withinRange;
   }
@@ -2,26 +2,34 @@ package com.extendedclip.deluxemenus.requirement;
 
 import com.extendedclip.deluxemenus.menu.MenuHolder;
 import com.extendedclip.deluxemenus.utils.DebugLevel;
+import com.extendedclip.deluxemenus.utils.StringTemplate;
 import com.google.common.primitives.Doubles;
 import com.google.common.primitives.Ints;
 import org.bukkit.Bukkit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.UUID;
 import java.util.logging.Level;
 
 public class IsObjectRequirement extends Requirement {
 
-    private final String input;
+    private final StringTemplate input;
     private final String object;
 
     public IsObjectRequirement(String input, String object) {
-        this.input = input;
+        this.input = StringTemplate.compile(input);
         this.object = object;
     }
 
+    @Override
+    public @Nullable String getResultKey(final @NotNull MenuHolder holder) {
+        return resultKey("is object", object, holder.render(input));
+    }
+
     @Override
     public boolean evaluate(MenuHolder holder) {
-        String toCheck = holder.setPlaceholdersAndArguments(input);
+        String toCheck = holder.render(input);
 
         switch (object) {
             case "int":
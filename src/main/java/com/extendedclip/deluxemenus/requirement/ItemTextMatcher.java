@@ -0,0 +1,151 @@
+package com.extendedclip.deluxemenus.requirement;
+
+import com.extendedclip.deluxemenus.menu.MenuHolder;
+import com.extendedclip.deluxemenus.utils.StringTemplate;
+import com.extendedclip.deluxemenus.utils.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Matches the display name or lore of an item against the text expected by a has item requirement. Lore lines are
+ * joined with {@code &&} and compared as a single string.
+ * <br>
+ * The expected text is colored once when it has no arguments or placeholders. The text of the item is only colored,
+ * its placeholders are never parsed.
+ */
+final class ItemTextMatcher {
+
+    private static final String LINE_SEPARATOR = "&&";
+
+    private final StringTemplate[] lines;
+    private final String constant;
+    private final Mode mode;
+
+    private ItemTextMatcher(final @NotNull StringTemplate @NotNull [] lines, final @NotNull Mode mode) {
+        this.lines = lines;
+        this.mode = mode;
+
+        boolean constant = true;
+        for (final StringTemplate line : lines) {
+            if (!line.isConstant()) {
+                constant = false;
+                break;
+            }
+        }
+        this.constant = constant ? join(lines, null) : null;
+    }
+
+    static @NotNull ItemTextMatcher of(final @NotNull String expected, final boolean contains, final boolean ignoreCase) {
+        return new ItemTextMatcher(new StringTemplate[]{StringTemplate.compile(expected)}, Mode.of(contains, ignoreCase));
+    }
+
+    static @NotNull ItemTextMatcher of(final @NotNull List<String> expected, final boolean contains, final boolean ignoreCase) {
+        final StringTemplate[] lines = new StringTemplate[expected.size()];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = StringTemplate.compile(expected.get(i));
+        }
+        return new ItemTextMatcher(lines, Mode.of(contains, ignoreCase));
+    }
+
+    /**
+     * @param holder the holder to resolve the arguments and placeholders for
+     * @return the colored text items are expected to have
+     */
+    @NotNull String expected(final @NotNull MenuHolder holder) {
+        return constant != null ? constant : join(lines, holder);
+    }
+
+    /**
+     * @param expected the text returned by {@link #expected(MenuHolder)}
+     * @param actual   the colored text of the item
+     * @return true if the text of the item matches
+     */
+    boolean matches(final @NotNull String expected, final @NotNull String actual) {
+        return mode.matches(expected, actual);
+    }
+
+    /**
+     * Color the display name or lore of an item the same way expected text is colored.
+     *
+     * @param lines the lines of the item
+     * @return the colored lines, joined with {@code &&}
+     */
+    static @NotNull String colorItemText(final @NotNull List<String> lines) {
+        if (lines.size() == 1) {
+            return color(lines.get(0));
+        }
+
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < lines.size(); i++) {
+            if (i > 0) {
+                builder.append(LINE_SEPARATOR);
+            }
+            builder.append(color(lines.get(i)));
+        }
+        return builder.toString();
+    }
+
+    static @NotNull String color(final @NotNull String text) {
+        // Colors and hex colors both start with '&', text without one is left as is.
+        return text.indexOf('&') == -1 ? text : StringUtils.color(text);
+    }
+
+    private static @NotNull String join(final @NotNull StringTemplate @NotNull [] lines, final @Nullable MenuHolder holder) {
+        if (lines.length == 1) {
+            return holder == null ? StringUtils.color(lines[0].raw()) : holder.renderColored(lines[0]);
+        }
+
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < lines.length; i++) {
+            if (i > 0) {
+                builder.append(LINE_SEPARATOR);
+            }
+            builder.append(holder == null ? StringUtils.color(lines[i].raw()) : holder.renderColored(lines[i]));
+        }
+        return builder.toString();
+    }
+
+    private enum Mode {
+        EQUALS {
+            @Override
+            boolean matches(final @NotNull String expected, final @NotNull String actual) {
+                return actual.equals(expected);
+            }
+        },
+        EQUALS_IGNORE_CASE {
+            @Override
+            boolean matches(final @NotNull String expected, final @NotNull String actual) {
+                return actual.equalsIgnoreCase(expected);
+            }
+        },
+        CONTAINS {
+            @Override
+            boolean matches(final @NotNull String expected, final @NotNull String actual) {
+                return actual.contains(expected);
+            }
+        },
+        CONTAINS_IGNORE_CASE {
+            @Override
+            boolean matches(final @NotNull String expected, final @NotNull String actual) {
+                final int last = actual.length() - expected.length();
+                for (int i = 0; i <= last; i++) {
+                    if (actual.regionMatches(true, i, expected, 0, expected.length())) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        };
+
+        abstract boolean matches(@NotNull String expected, @NotNull String actual);
+
+        static @NotNull Mode of(final boolean contains, final boolean ignoreCase) {
+            if (contains) {
+                return ignoreCase ? CONTAINS_IGNORE_CASE : CONTAINS;
+            }
+            return ignoreCase ? EQUALS_IGNORE_CASE : EQUALS;
+        }
+    }
+}
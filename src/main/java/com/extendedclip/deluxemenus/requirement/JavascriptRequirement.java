@@ -2,61 +2,66 @@ package com.extendedclip.deluxemenus.requirement;
 
 import com.extendedclip.deluxemenus.DeluxeMenus;
 import com.extendedclip.deluxemenus.menu.MenuHolder;
+import com.extendedclip.deluxemenus.requirement.expression.Expression;
+import com.extendedclip.deluxemenus.requirement.expression.ExpressionException;
+import com.extendedclip.deluxemenus.requirement.javascript.ScriptTemplate;
 import com.extendedclip.deluxemenus.utils.DebugLevel;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.logging.Level;
-import javax.script.ScriptEngineFactory;
-import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
-import org.bukkit.Bukkit;
-import org.bukkit.plugin.RegisteredServiceProvider;
-import org.bukkit.plugin.ServicePriority;
-import org.bukkit.plugin.ServicesManager;
 import org.jetbrains.annotations.NotNull;
-import org.openjdk.nashorn.api.scripting.NashornScriptEngineFactory;
+import org.jetbrains.annotations.Nullable;
 
 public class JavascriptRequirement extends Requirement {
 
-  private final ScriptEngineFactory factory = new NashornScriptEngineFactory();
-  private final ServicesManager manager = Bukkit.getServer().getServicesManager();
-  private static ScriptEngineManager engine;
   private final DeluxeMenus plugin;
   private final String expression;
+  private final ScriptTemplate script;
+  private final Expression translated;
 
   public JavascriptRequirement(final @NotNull DeluxeMenus plugin, String expression) {
     this.plugin = plugin;
     this.expression = expression;
-    if (engine == null) {
-      if (manager.isProvidedFor(ScriptEngineManager.class)) {
-        final RegisteredServiceProvider provider = manager.getRegistration(ScriptEngineManager.class);
-        engine = (ScriptEngineManager) provider.getProvider();
-      } else {
-        engine = new ScriptEngineManager();
-        manager.register(ScriptEngineManager.class, engine, plugin, ServicePriority.Highest);
-      }
-      engine.registerEngineName("JavaScript", factory);
-      engine.put("BukkitServer", Bukkit.getServer());
+    this.script = ScriptTemplate.compile(expression);
+    this.translated = plugin.getGeneralConfig().javascriptTranslateExpressions() ? translate(expression) : null;
+  }
+
+  private @Nullable Expression translate(final @NotNull String expression) {
+    try {
+      return Expression.translateJavascript(expression);
+    } catch (final ExpressionException exception) {
+      plugin.debug(
+          DebugLevel.LOWEST,
+          Level.INFO,
+          "Requirement javascript <" + expression + "> is evaluated with Nashorn: " + exception.getMessage()
+      );
+      return null;
     }
   }
 
   @Override
-  public boolean evaluate(MenuHolder holder) {
-
-    String exp = holder.setPlaceholdersAndArguments(expression);
-    try {
+  public @Nullable String getResultKey(@NotNull MenuHolder holder) {
+    return resultKey("javascript", expression, script.render(holder));
+  }
 
-      engine.put("BukkitPlayer", holder.getViewer());
-      Object result = engine.getEngineByName("JavaScript").eval(exp);
+  @Override
+  public boolean evaluate(MenuHolder holder) {
 
-      if (!(result instanceof Boolean)) {
-        plugin.debug(
-            DebugLevel.HIGHEST,
-            Level.WARNING,
-            "Requirement javascript <" + this.expression + "> is invalid and does not return a boolean!"
-        );
-        return false;
+    if (translated != null) {
+      try {
+        return checkResult(translated.evaluate(holder));
+      } catch (final ExpressionException ignored) {
+        // A placeholder used as code is not a number or a boolean, only the script engine can evaluate it.
       }
+    }
+
+    final Map<String, Object> variables = new HashMap<>();
+    final String source = script.prepare(holder, variables);
+    variables.put("BukkitPlayer", holder.getViewer());
+    try {
 
-      return (boolean) result;
+      return checkResult(plugin.getScriptEnginePool().eval(source, variables));
 
     } catch (final ScriptException | NullPointerException exception) {
       plugin.debug(
@@ -73,4 +78,17 @@ public class JavascriptRequirement extends Requirement {
     }
   }
 
+  private boolean checkResult(final @Nullable Object result) {
+    if (!(result instanceof Boolean)) {
+      plugin.debug(
+          DebugLevel.HIGHEST,
+          Level.WARNING,
+          "Requirement javascript <" + this.expression + "> is invalid and does not return a boolean!"
+      );
+      return false;
+    }
+
+    return (boolean) result;
+  }
+
 }
@@ -1,23 +1,31 @@
 package com.extendedclip.deluxemenus.requirement;
 
 import com.extendedclip.deluxemenus.menu.MenuHolder;
+import com.extendedclip.deluxemenus.utils.StringTemplate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import java.util.regex.Pattern;
 
 public class RegexMatchesRequirement extends Requirement {
 
   private final Pattern pattern;
-  private final String input;
+  private final StringTemplate input;
   private final boolean invert;
 
   public RegexMatchesRequirement(Pattern pattern, String input, boolean invert) {
     this.pattern = pattern;
-    this.input = input;
+    this.input = StringTemplate.compile(input);
     this.invert = invert;
   }
 
+  @Override
+  public @Nullable String getResultKey(@NotNull MenuHolder holder) {
+    return resultKey("regex", pattern.pattern(), pattern.flags(), holder.render(input), invert);
+  }
+
   @Override
   public boolean evaluate(MenuHolder holder) {
-    String toCheck = holder.setPlaceholdersAndArguments(input);
+    String toCheck = holder.render(input);
     if (invert) {
       return !pattern.matcher(holder.setPlaceholdersAndArguments(toCheck)).find();
     } else {
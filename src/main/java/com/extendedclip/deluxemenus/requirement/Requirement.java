@@ -2,12 +2,16 @@ package com.extendedclip.deluxemenus.requirement;
 
 import com.extendedclip.deluxemenus.action.ClickHandler;
 import com.extendedclip.deluxemenus.menu.MenuHolder;
+import com.extendedclip.deluxemenus.menu.RenderPass;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public abstract class Requirement {
 
   private ClickHandler successHandler;
   private ClickHandler denyHandler;
   private boolean optional;
+  private RequirementType type;
 
   public Requirement() {
     this.setOptional(false);
@@ -19,6 +23,70 @@ public abstract class Requirement {
 
   public abstract boolean evaluate(MenuHolder holder);
 
+  /**
+   * Get the key used to reuse the result of this requirement during a render pass. Requirements that check the same
+   * thing with the same resolved inputs must return the same key.
+   *
+   * @param holder the holder the requirement is evaluated for
+   * @return the key, or null if the result of this requirement should not be reused
+   */
+  public @Nullable String getResultKey(@NotNull MenuHolder holder) {
+    return null;
+  }
+
+  /**
+   * Read the live state of the viewer this requirement needs into the render pass of the holder, without evaluating
+   * the requirement. Called on the viewer's thread before a render, so the render can evaluate the requirement on
+   * another thread. Only cheap reads belong here, anything that needs arguments or placeholders is read during the
+   * render instead.
+   *
+   * @param holder the holder that is rendered
+   */
+  public void prefetch(@NotNull MenuHolder holder) {
+  }
+
+  /**
+   * Evaluate this requirement, reusing the result of an equal requirement if one was already evaluated during the
+   * current render pass of the holder. Success and deny handlers are not part of the result and are not run here.
+   * <br>
+   * Only actual evaluations are timed for {@link RequirementCosts}, reused results are not.
+   *
+   * @param holder the holder to evaluate the requirement for
+   * @return the result of the requirement
+   */
+  public boolean evaluateCached(@NotNull MenuHolder holder) {
+    final RenderPass pass = holder.getRenderPass();
+    if (pass == null) {
+      return evaluateTimed(holder);
+    }
+
+    final String key = getResultKey(holder);
+    if (key == null) {
+      return evaluateTimed(holder);
+    }
+    return pass.requirement(key, () -> evaluateTimed(holder));
+  }
+
+  private boolean evaluateTimed(@NotNull MenuHolder holder) {
+    final RequirementCosts costs = holder.getPlugin().getRequirementCosts();
+    if (!costs.isEnabled()) {
+      return evaluate(holder);
+    }
+
+    final long start = System.nanoTime();
+    final boolean result = evaluate(holder);
+    costs.record(this, System.nanoTime() - start);
+    return result;
+  }
+
+  protected static @NotNull String resultKey(@NotNull Object... parts) {
+    final StringBuilder builder = new StringBuilder();
+    for (Object part : parts) {
+      builder.append(part).append('\0');
+    }
+    return builder.toString();
+  }
+
   public ClickHandler getDenyHandler() {
     return denyHandler;
   }
@@ -39,6 +107,14 @@ public abstract class Requirement {
     this.optional = optional;
   }
 
+  public @Nullable RequirementType getType() {
+    return type;
+  }
+
+  public void setType(@Nullable RequirementType type) {
+    this.type = type;
+  }
+
   public ClickHandler getSuccessHandler() {
     return successHandler;
   }
@@ -0,0 +1,16 @@
+package com.extendedclip.deluxemenus.requirement;
+
+/**
+ * The thread a {@link RequirementType} needs to be evaluated on.
+ */
+public enum RequirementAffinity {
+    /**
+     * Reads live state of the viewer (permissions, inventory, location, metadata, exp), which on Folia must only be
+     * read by the thread that owns the viewer.
+     */
+    ENTITY,
+    /**
+     * Only compares resolved arguments and placeholders, and can be evaluated on any thread.
+     */
+    ANY
+}
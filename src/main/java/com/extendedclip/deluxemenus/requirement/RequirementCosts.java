@@ -0,0 +1,151 @@
+package com.extendedclip.deluxemenus.requirement;
+
+import com.extendedclip.deluxemenus.DeluxeMenus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estimates how long each {@link RequirementType} takes to evaluate, so requirement lists can evaluate their cheapest
+ * requirements first. Types start with a static estimate, replaced by the measured average once enough evaluations
+ * were timed.
+ */
+public class RequirementCosts {
+
+    private static final int MIN_SAMPLES = 16;
+    private static final long DEFAULT_ESTIMATE = 5_000;
+    private static final Map<RequirementType, Long> STATIC_ESTIMATES = new EnumMap<>(RequirementType.class);
+
+    static {
+        STATIC_ESTIMATES.put(RequirementType.HAS_PERMISSION, 1_000L);
+        STATIC_ESTIMATES.put(RequirementType.DOES_NOT_HAVE_PERMISSION, 1_000L);
+        STATIC_ESTIMATES.put(RequirementType.IS_NEAR, 1_000L);
+        STATIC_ESTIMATES.put(RequirementType.IS_NOT_NEAR, 1_000L);
+        STATIC_ESTIMATES.put(RequirementType.HAS_META, 2_000L);
+        STATIC_ESTIMATES.put(RequirementType.DOES_NOT_HAVE_META, 2_000L);
+        STATIC_ESTIMATES.put(RequirementType.HAS_EXP, 2_000L);
+        STATIC_ESTIMATES.put(RequirementType.DOES_NOT_HAVE_EXP, 2_000L);
+        STATIC_ESTIMATES.put(RequirementType.HAS_PERMISSIONS, 3_000L);
+        STATIC_ESTIMATES.put(RequirementType.DOES_NOT_HAVE_PERMISSIONS, 3_000L);
+        STATIC_ESTIMATES.put(RequirementType.EXPRESSION, 10_000L);
+        STATIC_ESTIMATES.put(RequirementType.HAS_MONEY, 20_000L);
+        STATIC_ESTIMATES.put(RequirementType.DOES_NOT_HAVE_MONEY, 20_000L);
+        STATIC_ESTIMATES.put(RequirementType.HAS_ITEM, 50_000L);
+        STATIC_ESTIMATES.put(RequirementType.DOES_NOT_HAVE_ITEM, 50_000L);
+        STATIC_ESTIMATES.put(RequirementType.JAVASCRIPT, 500_000L);
+    }
+
+    private final DeluxeMenus plugin;
+    private final Map<RequirementType, Timing> timings = new EnumMap<>(RequirementType.class);
+
+    public RequirementCosts(final @NotNull DeluxeMenus plugin) {
+        this.plugin = plugin;
+        for (final RequirementType type : RequirementType.values()) {
+            timings.put(type, new Timing());
+        }
+    }
+
+    public boolean isEnabled() {
+        return plugin.getGeneralConfig().reorderRequirementsByCost();
+    }
+
+    /**
+     * @param requirement the requirement to estimate
+     * @return the estimated time it takes to evaluate the requirement, in nanoseconds
+     */
+    public long estimate(final @NotNull Requirement requirement) {
+        final RequirementType type = requirement.getType();
+        if (type == null) {
+            return DEFAULT_ESTIMATE;
+        }
+
+        final Timing timing = timings.get(type);
+        final long count = timing.count.sum();
+        if (count >= MIN_SAMPLES) {
+            return timing.total.sum() / count;
+        }
+        return STATIC_ESTIMATES.getOrDefault(type, DEFAULT_ESTIMATE);
+    }
+
+    public void record(final @NotNull Requirement requirement, final long nanos) {
+        final RequirementType type = requirement.getType();
+        if (type == null) {
+            return;
+        }
+
+        final Timing timing = timings.get(type);
+        timing.count.increment();
+        timing.total.add(Math.max(0, nanos));
+    }
+
+    public void reset() {
+        for (final Timing timing : timings.values()) {
+            timing.count.reset();
+            timing.total.reset();
+        }
+    }
+
+    /**
+     * @return the estimates of the requirement types, the cheapest first
+     */
+    public @NotNull List<Entry> getEntries() {
+        final List<Entry> entries = new ArrayList<>();
+        for (final Map.Entry<RequirementType, Timing> entry : timings.entrySet()) {
+            final long count = entry.getValue().count.sum();
+            entries.add(new Entry(
+                    entry.getKey(),
+                    STATIC_ESTIMATES.getOrDefault(entry.getKey(), DEFAULT_ESTIMATE),
+                    count,
+                    count == 0 ? null : entry.getValue().total.sum() / count
+            ));
+        }
+        entries.sort((first, second) -> Long.compare(first.getEstimateNanos(), second.getEstimateNanos()));
+        return Collections.unmodifiableList(entries);
+    }
+
+    private static final class Timing {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+    }
+
+    public static final class Entry {
+        private final RequirementType type;
+        private final long staticNanos;
+        private final long count;
+        private final Long averageNanos;
+
+        private Entry(final @NotNull RequirementType type, final long staticNanos, final long count,
+                      final @Nullable Long averageNanos) {
+            this.type = type;
+            this.staticNanos = staticNanos;
+            this.count = count;
+            this.averageNanos = averageNanos;
+        }
+
+        public @NotNull RequirementType getType() {
+            return type;
+        }
+
+        public long getStaticNanos() {
+            return staticNanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public @Nullable Long getAverageNanos() {
+            return averageNanos;
+        }
+
+        public long getEstimateNanos() {
+            return averageNanos != null && count >= MIN_SAMPLES ? averageNanos : staticNanos;
+        }
+    }
+}
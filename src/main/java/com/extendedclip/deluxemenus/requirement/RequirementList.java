@@ -1,24 +1,50 @@
 package com.extendedclip.deluxemenus.requirement;
 
+import com.extendedclip.deluxemenus.DeluxeMenus;
 import com.extendedclip.deluxemenus.action.ClickHandler;
 import com.extendedclip.deluxemenus.menu.MenuHolder;
+import com.extendedclip.deluxemenus.menu.RenderPass;
+import com.extendedclip.deluxemenus.utils.DebugLevel;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
 
 public class RequirementList {
 
+  private static final long COST_ORDER_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(10);
+
   private List<Requirement> requirements;
   private ClickHandler denyHandler;
   private int minimumRequirements;
   private boolean stopAtSuccess;
+  private String path;
+  private volatile List<Requirement> costOrder;
+  private volatile long costOrderTime;
 
   public RequirementList(List<Requirement> requirements) {
     this.setRequirements(requirements);
   }
 
   public boolean evaluate(MenuHolder holder) {
+    final RenderPass pass = holder.getRenderPass();
+    if (pass == null || hasHandlers()) {
+      return evaluateRequirements(holder);
+    }
+    // Lists shared between items are evaluated once per render pass.
+    return pass.requirementList(this, () -> evaluateRequirements(holder));
+  }
+
+  private boolean evaluateRequirements(MenuHolder holder) {
+    final RequirementCosts costs = DeluxeMenus.getInstance().getRequirementCosts();
+    final boolean reorder = costs.isEnabled() && canReorder();
+    final List<Requirement> order = reorder ? getCostOrder(costs) : getRequirements();
+
     int successful = 0;
-    for (Requirement r : getRequirements()) {
-      if (r.evaluate(holder)) {
+    for (Requirement r : order) {
+      if (r.evaluateCached(holder)) {
         successful = successful + 1;
         if (r.getSuccessHandler() != null) {
           r.getSuccessHandler().onClick(holder);
@@ -38,12 +64,75 @@ public class RequirementList {
     return successful >= minimumRequirements;
   }
 
+  /**
+   * The order of the requirements only changes the result if they run handlers, or if stop_at_success can stop
+   * before a failing requirement that is not optional is reached.
+   */
+  private boolean canReorder() {
+    if (hasHandlers()) {
+      return false;
+    }
+    if (!this.stopAtSuccess) {
+      return true;
+    }
+    for (Requirement r : getRequirements()) {
+      if (!r.isOptional()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private List<Requirement> getCostOrder(RequirementCosts costs) {
+    final long now = System.nanoTime();
+    final List<Requirement> current = this.costOrder;
+    if (current != null && now - this.costOrderTime < COST_ORDER_REFRESH_NANOS) {
+      return current;
+    }
+
+    // Sorting is stable, requirements with the same cost keep their configured order.
+    final List<Requirement> order = new ArrayList<>(getRequirements());
+    order.sort(Comparator.comparingLong(costs::estimate));
+    this.costOrder = order;
+    this.costOrderTime = now;
+
+    if (!order.equals(current)) {
+      DeluxeMenus.getInstance().debug(
+          DebugLevel.LOWEST,
+          Level.INFO,
+          "Evaluating requirements" + (path == null ? "" : " of " + path) + " in order: " + order.stream()
+              .map(r -> (r.getType() == null ? r.getClass().getSimpleName() : r.getType().getIdentifiers().get(0))
+                  + " (~" + costs.estimate(r) / 1000 + "us)")
+              .collect(Collectors.joining(", "))
+      );
+    }
+    return order;
+  }
+
+  boolean hasHandlers() {
+    for (Requirement r : getRequirements()) {
+      if (r.getSuccessHandler() != null || r.getDenyHandler() != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   public List<Requirement> getRequirements() {
     return requirements;
   }
 
   public void setRequirements(List<Requirement> requirements) {
     this.requirements = requirements;
+    this.costOrder = null;
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  public void setPath(String path) {
+    this.path = path;
   }
 
   public ClickHandler getDenyHandler() {
@@ -0,0 +1,156 @@
+package com.extendedclip.deluxemenus.requirement;
+
+import com.extendedclip.deluxemenus.DeluxeMenus;
+import com.extendedclip.deluxemenus.menu.MenuHolder;
+import com.extendedclip.deluxemenus.menu.RenderPass;
+import io.github.projectunified.minelib.scheduler.async.AsyncScheduler;
+import io.github.projectunified.minelib.scheduler.entity.EntityScheduler;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides on which thread the view requirements of a render are evaluated.
+ * <br>
+ * No requirement is evaluated on the viewer's thread. Requirements that read live state of the viewer
+ * ({@link RequirementAffinity#ENTITY}) only copy that state into the render pass of the holder there, in a single task
+ * on the viewer's entity scheduler (see {@link Requirement#prefetch(MenuHolder)}): the inventory, location and exp of
+ * the viewer, and the permissions and meta values that do not depend on placeholders.
+ * <br>
+ * The requirements themselves are evaluated on the async scheduler. Slots are evaluated in parallel, each in the order
+ * the render evaluates them: the view requirements of an item are only evaluated if the items before it in the slot
+ * were not shown. The render then reuses the results stored in the pass.
+ */
+public class RequirementPlanner {
+
+    private final DeluxeMenus plugin;
+
+    public RequirementPlanner(final @NotNull DeluxeMenus plugin) {
+        this.plugin = plugin;
+    }
+
+    public boolean isEnabled() {
+        return plugin.getGeneralConfig().prefetchEntityRequirements();
+    }
+
+    /**
+     * Plan the evaluation of the view requirements of a menu.
+     *
+     * @param slots the view requirement lists of each slot, in the order the render evaluates them
+     * @return the plan for the slots
+     */
+    public static @NotNull Plan plan(final @NotNull List<List<RequirementList>> slots) {
+        final Set<Requirement> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<Requirement> entityBound = new ArrayList<>();
+
+        for (final List<RequirementList> lists : slots) {
+            for (final RequirementList list : lists) {
+                if (list.getRequirements() == null) {
+                    continue;
+                }
+
+                for (final Requirement requirement : list.getRequirements()) {
+                    final RequirementType type = requirement.getType();
+                    if (type != null && type.getAffinity() == RequirementAffinity.ENTITY && seen.add(requirement)) {
+                        entityBound.add(requirement);
+                    }
+                }
+            }
+        }
+
+        return new Plan(entityBound, slots);
+    }
+
+    /**
+     * Run a render task off the main thread. The live state of the viewer read by the requirements of the plan is
+     * copied on the viewer's thread first, and the view requirements of the slots are evaluated in parallel before the
+     * task runs. Everything is stored in the given pass, which the task has to run in to reuse it.
+     * <br>
+     * If the viewer is removed before its entity task runs, the render task does not run either.
+     *
+     * @param holder the holder that is rendered
+     * @param pass   the render pass of the render
+     * @param plan   the plan of the requirements evaluated during the render
+     * @param task   the render task
+     */
+    public void schedule(final @NotNull MenuHolder holder, final @NotNull RenderPass pass, final @NotNull Plan plan,
+                         final @NotNull Runnable task) {
+        final Player viewer = holder.getViewer();
+        final Runnable render = () -> evaluateSlots(holder, pass, plan, task);
+        if (!isEnabled() || plan.entityBound.isEmpty() || viewer == null) {
+            AsyncScheduler.get(plugin).run(render);
+            return;
+        }
+
+        EntityScheduler.get(plugin, viewer).run(() -> {
+            try {
+                holder.runInRenderPass(pass, () -> {
+                    for (final Requirement requirement : plan.entityBound) {
+                        requirement.prefetch(holder);
+                    }
+                });
+            } catch (final RuntimeException e) {
+                plugin.printStacktrace("Could not read the state of " + viewer.getName(), e);
+            }
+            AsyncScheduler.get(plugin).run(render);
+        });
+    }
+
+    private void evaluateSlots(final @NotNull MenuHolder holder, final @NotNull RenderPass pass,
+                               final @NotNull Plan plan, final @NotNull Runnable task) {
+        final int workers = Math.min(plan.slots.size(), Runtime.getRuntime().availableProcessors());
+        if (!plugin.getGeneralConfig().parallelSlotRequirements() || workers < 2) {
+            task.run();
+            return;
+        }
+
+        // The last worker to finish runs the render task.
+        final AtomicInteger remaining = new AtomicInteger(workers);
+        for (int worker = 0; worker < workers; worker++) {
+            final int first = worker;
+            AsyncScheduler.get(plugin).run(() -> {
+                try {
+                    holder.runInRenderPass(pass, () -> {
+                        for (int slot = first; slot < plan.slots.size(); slot += workers) {
+                            evaluateSlot(holder, plan.slots.get(slot));
+                        }
+                    });
+                } catch (final RuntimeException e) {
+                    plugin.printStacktrace("Could not evaluate view requirements for " + holder.getViewerName(), e);
+                }
+
+                if (remaining.decrementAndGet() == 0) {
+                    task.run();
+                }
+            });
+        }
+    }
+
+    private static void evaluateSlot(final @NotNull MenuHolder holder, final @NotNull List<RequirementList> lists) {
+        for (final RequirementList list : lists) {
+            // Lists that run handlers are only evaluated by the render, which runs their handlers.
+            if (list.hasHandlers() || list.evaluate(holder)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * How the view requirements of a menu are evaluated during a render.
+     */
+    public static final class Plan {
+        private final List<Requirement> entityBound;
+        private final List<List<RequirementList>> slots;
+
+        private Plan(final @NotNull List<Requirement> entityBound, final @NotNull List<List<RequirementList>> slots) {
+            this.entityBound = Collections.unmodifiableList(entityBound);
+            this.slots = Collections.unmodifiableList(slots);
+        }
+    }
+}
@@ -6,23 +6,26 @@ import java.util.List;
 
 public enum RequirementType {
   HAS_META(Arrays.asList("has meta", "meta"), "Checks if a player has a certain metadata value",
-      Arrays.asList("key", "value")),
+      Arrays.asList("key", "value"), RequirementAffinity.ENTITY),
   DOES_NOT_HAVE_META(Arrays.asList("!has meta", "!meta"),
-      "Checks if a player does not have a certain metadata value", Arrays.asList("key", "value")),
+      "Checks if a player does not have a certain metadata value", Arrays.asList("key", "value"), RequirementAffinity.ENTITY),
   IS_NEAR(Arrays.asList("is near", "near"),
       "Checks if a player is within a certain distance of a specific location",
-      Arrays.asList("location", "distance")),
+      Arrays.asList("location", "distance"), RequirementAffinity.ENTITY),
   IS_NOT_NEAR(Arrays.asList("!is near", "!near"),
       "Checks if a player is not within a certain distance of a specific location",
-      Arrays.asList("location", "distance")),
+      Arrays.asList("location", "distance"), RequirementAffinity.ENTITY),
   JAVASCRIPT(Arrays.asList("javascript", "js"),
       "Evaluates a javascript expression that must return true or false",
       Collections.singletonList("expression")),
+  EXPRESSION(Arrays.asList("expression"),
+      "Evaluates a native expression that must return true or false",
+      Collections.singletonList("expression")),
   HAS_ITEM(Arrays.asList("has item", "item", "hasitem"), "Checks if a player has a specific item",
-      Arrays.asList("material", "amount", "data", "name", "lore")),
+      Arrays.asList("material", "amount", "data", "name", "lore"), RequirementAffinity.ENTITY),
   DOES_NOT_HAVE_ITEM(Arrays.asList("!has item", "!item", "!hasitem", "does not have item"),
       "Checks if a player does not have specific item",
-      Arrays.asList("material", "amount", "data", "name", "lore")),
+      Arrays.asList("material", "amount", "data", "name", "lore"), RequirementAffinity.ENTITY),
   HAS_MONEY(Arrays.asList("has money", "hasmoney", "money"),
       "Checks if a player has enough money (Vault required)",
       Arrays.asList("amount", "placeholder")),
@@ -31,22 +34,22 @@ public enum RequirementType {
       Arrays.asList("amount", "placeholder")),
   HAS_EXP(Arrays.asList("has exp", "hasexp", "exp"),
       "Checks if a player has enough exp",
-      Arrays.asList("amount")),
+      Arrays.asList("amount"), RequirementAffinity.ENTITY),
   DOES_NOT_HAVE_EXP(Arrays.asList("!has exp", "!hasexp", "!exp"),
       "Checks if a player has enough exp",
-      Arrays.asList("amount")),
+      Arrays.asList("amount"), RequirementAffinity.ENTITY),
   HAS_PERMISSION(Arrays.asList("has permission", "has perm", "haspermission", "hasperm", "perm"),
-      "Checks if a player has a specific permission", Collections.singletonList("permission")),
+      "Checks if a player has a specific permission", Collections.singletonList("permission"), RequirementAffinity.ENTITY),
   DOES_NOT_HAVE_PERMISSION(
       Arrays.asList("!has permission", "!has perm", "!haspermission", "!hasperm", "!perm"),
       "Checks if a player does not have a specific permission",
-      Collections.singletonList("permission")),
+      Collections.singletonList("permission"), RequirementAffinity.ENTITY),
   HAS_PERMISSIONS(Arrays.asList("has permissions", "has perms", "haspermissions", "hasperms", "perms"),
-          "Checks if a player has a set amount of permissions", Collections.singletonList("permissions")),
+          "Checks if a player has a set amount of permissions", Collections.singletonList("permissions"), RequirementAffinity.ENTITY),
   DOES_NOT_HAVE_PERMISSIONS(
           Arrays.asList("!has permissions", "!has perms", "!haspermissions", "!hasperms", "!perms"),
           "Checks if a player does not have a set amount of permission",
-          Arrays.asList("permissions", "minimum")),
+          Arrays.asList("permissions", "minimum"), RequirementAffinity.ENTITY),
   STRING_CONTAINS(Arrays.asList("string contains", "stringcontains", "contains"),
       "Checks if a string contains another string", Arrays.asList("input", "output")),
   STRING_DOES_NOT_CONTAIN(Arrays.asList("!string contains", "!stringcontains", "!contains"),
@@ -92,11 +95,17 @@ public enum RequirementType {
   private final List<String> identifier;
   private final String description;
   private final List<String> configOptions;
+  private final RequirementAffinity affinity;
 
   RequirementType(List<String> identifier, String description, List<String> options) {
+    this(identifier, description, options, RequirementAffinity.ANY);
+  }
+
+  RequirementType(List<String> identifier, String description, List<String> options, RequirementAffinity affinity) {
     this.identifier = identifier;
     this.description = description;
     this.configOptions = options;
+    this.affinity = affinity;
   }
 
   public static RequirementType getType(String s) {
@@ -121,4 +130,11 @@ public enum RequirementType {
   public List<String> getConfigOptions() {
     return configOptions;
   }
+
+  /**
+   * @return the thread requirements of this type need to be evaluated on
+   */
+  public RequirementAffinity getAffinity() {
+    return affinity;
+  }
 }
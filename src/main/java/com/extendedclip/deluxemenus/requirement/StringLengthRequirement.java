@@ -1,22 +1,30 @@
 package com.extendedclip.deluxemenus.requirement;
 
 import com.extendedclip.deluxemenus.menu.MenuHolder;
+import com.extendedclip.deluxemenus.utils.StringTemplate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class StringLengthRequirement extends Requirement {
 
-    private final String input;
+    private final StringTemplate input;
     private final int min;
     private final Integer max;
 
     public StringLengthRequirement(String input, int min, Integer max) {
-        this.input = input;
+        this.input = StringTemplate.compile(input);
         this.min = min;
         this.max = max;
     }
 
+    @Override
+    public @Nullable String getResultKey(final @NotNull MenuHolder holder) {
+        return resultKey("string length", holder.render(input), min, max);
+    }
+
     @Override
     public boolean evaluate(MenuHolder holder) {
-        String toCheck = holder.setPlaceholdersAndArguments(input);
+        String toCheck = holder.render(input);
         if (max == null) {
             return toCheck.length() >= min;
         } else {
@@ -0,0 +1,118 @@
+package com.extendedclip.deluxemenus.requirement.expression;
+
+import com.extendedclip.deluxemenus.menu.MenuHolder;
+import com.extendedclip.deluxemenus.utils.StringTemplate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An expression evaluated without a script engine, parsed into a syntax tree when it is loaded.
+ * <br>
+ * Supported are numbers, strings in single or double quotes, {@code true} and {@code false}, arithmetic
+ * ({@code + - * / %}), comparisons ({@code < <= > >=}), equality ({@code == != === !==}), {@code &&}, {@code ||},
+ * {@code !} and parentheses. Values are compared the same way the comparison requirements compare them:
+ * {@code < <= > >=} always compare numbers read with {@link Double#parseDouble(String)}, {@code ==} and {@code !=}
+ * compare two strings like {@code string equals} and anything else like {@code ==}, and a value that is not a number
+ * never matches a numeric comparison, not even {@code !=}. Translated javascript expressions follow javascript instead.
+ * <br>
+ * Arguments and placeholders inside a string are part of the string. Used outside of a string, their value is read as
+ * a boolean or a number, or as a string if it is neither. Expressions that use arguments inside placeholders (eg.
+ * {@code %statistic_{stat}%}) are rendered and parsed every time they are evaluated.
+ */
+public final class Expression {
+
+    static final char MARKER_START = '\uE000';
+    static final char MARKER_END = '\uE001';
+    private static final String[] NO_VALUES = new String[0];
+
+    private final StringTemplate template;
+    private final boolean javascript;
+    private final Node root;
+
+    private Expression(final @NotNull StringTemplate template, final boolean javascript, final @Nullable Node root) {
+        this.template = template;
+        this.javascript = javascript;
+        this.root = root;
+    }
+
+    /**
+     * Parse an expression.
+     *
+     * @param expression the expression to parse
+     * @return the parsed expression
+     * @throws ExpressionException if the expression is invalid
+     */
+    public static @NotNull Expression compile(final @NotNull String expression) throws ExpressionException {
+        final StringTemplate template = StringTemplate.compile(expression);
+        if (!template.isSegmented()) {
+            return new Expression(template, false, null);
+        }
+        return new Expression(template, false, parse(template, false));
+    }
+
+    /**
+     * Translate a javascript expression. Only expressions that use the syntax supported by {@link Expression} are
+     * translated. Evaluating the translated expression throws an {@link ExpressionException} if a placeholder used
+     * outside of a string is not a number or a boolean, since javascript would read it as code.
+     *
+     * @param expression the javascript expression to translate
+     * @return the translated expression
+     * @throws ExpressionException if the expression can not be translated
+     */
+    public static @NotNull Expression translateJavascript(final @NotNull String expression) throws ExpressionException {
+        final StringTemplate template = StringTemplate.compile(expression);
+        if (!template.isSegmented()) {
+            throw new ExpressionException("Arguments inside placeholders are not supported");
+        }
+        return new Expression(template, true, parse(template, true));
+    }
+
+    private static @NotNull Node parse(final @NotNull StringTemplate template, final boolean javascript)
+            throws ExpressionException {
+        final String raw = template.raw();
+        if (raw.indexOf(MARKER_START) != -1 || raw.indexOf(MARKER_END) != -1) {
+            throw new ExpressionException("Unexpected private use character");
+        }
+
+        final String marked = template.join(index -> String.valueOf(MARKER_START) + index + MARKER_END);
+        return Parser.parse(Lexer.tokenize(marked, javascript));
+    }
+
+    /**
+     * Evaluate this expression for a holder.
+     *
+     * @param holder the holder to resolve the arguments and placeholders for
+     * @return the result, a {@link Double}, {@link String} or {@link Boolean}
+     * @throws ExpressionException if the rendered expression is invalid, or a placeholder of a translated javascript
+     *                             expression has a value that can not be evaluated natively
+     */
+    public @NotNull Object evaluate(final @NotNull MenuHolder holder) throws ExpressionException {
+        if (root == null) {
+            final String rendered = holder.render(template);
+            if (rendered.indexOf(MARKER_START) != -1) {
+                throw new ExpressionException("Unexpected private use character");
+            }
+            return Parser.parse(Lexer.tokenize(rendered, false)).evaluate(NO_VALUES, false);
+        }
+
+        final String[] values = template.isConstant() ? NO_VALUES : holder.resolveValues(template);
+        return root.evaluate(values, javascript);
+    }
+
+    /**
+     * Render the expression with its arguments and placeholders replaced by their values.
+     *
+     * @param holder the holder to resolve the arguments and placeholders for
+     * @return the rendered expression
+     */
+    public @NotNull String render(final @NotNull MenuHolder holder) {
+        return holder.render(template);
+    }
+
+    /**
+     * @return the configured expression
+     */
+    public @NotNull String raw() {
+        return template.raw();
+    }
+}
@@ -0,0 +1,13 @@
+package com.extendedclip.deluxemenus.requirement.expression;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Thrown when an expression can not be parsed, or can not be evaluated natively.
+ */
+public class ExpressionException extends Exception {
+
+    public ExpressionException(final @NotNull String message) {
+        super(message);
+    }
+}
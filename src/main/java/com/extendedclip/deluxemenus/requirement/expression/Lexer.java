@@ -0,0 +1,300 @@
+package com.extendedclip.deluxemenus.requirement.expression;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits an expression into tokens. Arguments and placeholders are expected to be replaced by markers
+ * ({@link Expression#MARKER_START}, index, {@link Expression#MARKER_END}) beforehand.
+ */
+final class Lexer {
+
+    private final String source;
+    private final boolean javascript;
+    private final List<Token> tokens = new ArrayList<>();
+    private int position;
+
+    private Lexer(final @NotNull String source, final boolean javascript) {
+        this.source = source;
+        this.javascript = javascript;
+    }
+
+    /**
+     * @param source     the expression to split
+     * @param javascript true to only accept tokens that javascript reads the same way
+     * @return the tokens of the expression, ending with {@link Token.Type#END}
+     * @throws ExpressionException if the expression contains an invalid token
+     */
+    static @NotNull List<Token> tokenize(final @NotNull String source, final boolean javascript) throws ExpressionException {
+        final Lexer lexer = new Lexer(source, javascript);
+        lexer.run();
+        return lexer.tokens;
+    }
+
+    private void run() throws ExpressionException {
+        while (position < source.length()) {
+            final char c = source.charAt(position);
+
+            if (Character.isWhitespace(c)) {
+                position++;
+                continue;
+            }
+
+            if (isDigit(c) || (c == '.' && isDigit(peek(1)))) {
+                number();
+                continue;
+            }
+
+            if (c == '\'' || c == '"') {
+                string(c);
+                continue;
+            }
+
+            if (c == Expression.MARKER_START) {
+                slot();
+                continue;
+            }
+
+            if (Character.isJavaIdentifierStart(c)) {
+                identifier();
+                continue;
+            }
+
+            operator(c);
+        }
+        tokens.add(new Token(Token.Type.END, position, null));
+    }
+
+    private void number() throws ExpressionException {
+        final int start = position;
+        while (isDigit(peek(0))) {
+            position++;
+        }
+        if (peek(0) == '.') {
+            position++;
+            while (isDigit(peek(0))) {
+                position++;
+            }
+        }
+        if ((peek(0) == 'e' || peek(0) == 'E')
+                && (isDigit(peek(1)) || ((peek(1) == '+' || peek(1) == '-') && isDigit(peek(2))))) {
+            position += 2;
+            while (isDigit(peek(0))) {
+                position++;
+            }
+        }
+
+        final String number = source.substring(start, position);
+        if (javascript && number.length() > 1 && number.charAt(0) == '0' && isDigit(number.charAt(1))) {
+            throw error(start, "Octal numbers are not supported");
+        }
+        if (isIdentifierPart(peek(0))) {
+            throw error(position, "Unexpected character after number");
+        }
+        tokens.add(new Token(Token.Type.NUMBER, start, Double.parseDouble(number)));
+    }
+
+    private void string(final char quote) throws ExpressionException {
+        final int start = position++;
+        final List<Object> parts = new ArrayList<>();
+        final StringBuilder builder = new StringBuilder();
+
+        while (true) {
+            if (position >= source.length()) {
+                throw error(start, "Unterminated string");
+            }
+
+            final char c = source.charAt(position++);
+            if (c == quote) {
+                break;
+            }
+
+            if (c == Expression.MARKER_START) {
+                if (builder.length() > 0) {
+                    parts.add(builder.toString());
+                    builder.setLength(0);
+                }
+                parts.add(readSlotIndex());
+                continue;
+            }
+
+            if (c == '\\') {
+                builder.append(escape());
+                continue;
+            }
+
+            if (c == '\n' || c == '\r') {
+                throw error(position - 1, "Unterminated string");
+            }
+            builder.append(c);
+        }
+
+        if (builder.length() > 0 || parts.isEmpty()) {
+            parts.add(builder.toString());
+        }
+        tokens.add(new Token(Token.Type.STRING, start, parts));
+    }
+
+    private char escape() throws ExpressionException {
+        final char c = peek(0);
+        position++;
+        switch (c) {
+            case '\\':
+            case '\'':
+            case '"':
+                return c;
+            case 'n':
+                return '\n';
+            case 't':
+                return '\t';
+            case 'r':
+                return '\r';
+            default:
+                throw error(position - 2, "Unsupported escape sequence");
+        }
+    }
+
+    private void slot() throws ExpressionException {
+        final int start = position;
+        if (start > 0 && isIdentifierPart(source.charAt(start - 1))) {
+            throw error(start, "Placeholders can not be part of a name or number");
+        }
+
+        position++;
+        final int index = readSlotIndex();
+        if (isIdentifierPart(peek(0))) {
+            throw error(position, "Placeholders can not be part of a name or number");
+        }
+        tokens.add(new Token(Token.Type.SLOT, start, index));
+    }
+
+    /**
+     * Read the index of a marker, the marker start being already read.
+     */
+    private int readSlotIndex() throws ExpressionException {
+        final int end = source.indexOf(Expression.MARKER_END, position);
+        if (end == -1) {
+            throw error(position, "Invalid placeholder marker");
+        }
+        final int index = Integer.parseInt(source.substring(position, end));
+        position = end + 1;
+        return index;
+    }
+
+    private void identifier() throws ExpressionException {
+        final int start = position;
+        while (position < source.length() && Character.isJavaIdentifierPart(source.charAt(position))) {
+            position++;
+        }
+
+        final String identifier = source.substring(start, position);
+        switch (identifier) {
+            case "true":
+                tokens.add(new Token(Token.Type.BOOLEAN, start, Boolean.TRUE));
+                break;
+            case "false":
+                tokens.add(new Token(Token.Type.BOOLEAN, start, Boolean.FALSE));
+                break;
+            default:
+                throw error(start, "Unknown name '" + identifier + "'");
+        }
+    }
+
+    private void operator(final char c) throws ExpressionException {
+        final int start = position;
+        final Token.Type type;
+        switch (c) {
+            case '+':
+                type = Token.Type.PLUS;
+                break;
+            case '-':
+                type = Token.Type.MINUS;
+                break;
+            case '*':
+                type = Token.Type.STAR;
+                break;
+            case '/':
+                type = Token.Type.SLASH;
+                break;
+            case '%':
+                type = Token.Type.PERCENT;
+                break;
+            case '(':
+                type = Token.Type.LEFT_PARENTHESIS;
+                break;
+            case ')':
+                type = Token.Type.RIGHT_PARENTHESIS;
+                break;
+            case '&':
+                if (peek(1) != '&') {
+                    throw error(start, "Unexpected character '&'");
+                }
+                position++;
+                type = Token.Type.AND;
+                break;
+            case '|':
+                if (peek(1) != '|') {
+                    throw error(start, "Unexpected character '|'");
+                }
+                position++;
+                type = Token.Type.OR;
+                break;
+            case '=':
+                if (peek(1) != '=') {
+                    throw error(start, "Unexpected character '='");
+                }
+                position++;
+                type = equalsFollows() ? Token.Type.STRICT_EQUAL : Token.Type.EQUAL;
+                break;
+            case '!':
+                if (peek(1) == '=') {
+                    position++;
+                    type = equalsFollows() ? Token.Type.STRICT_NOT_EQUAL : Token.Type.NOT_EQUAL;
+                } else {
+                    type = Token.Type.NOT;
+                }
+                break;
+            case '<':
+                type = equalsFollows() ? Token.Type.LESS_EQUAL : Token.Type.LESS;
+                break;
+            case '>':
+                type = equalsFollows() ? Token.Type.GREATER_EQUAL : Token.Type.GREATER;
+                break;
+            default:
+                throw error(start, "Unexpected character '" + c + "'");
+        }
+        position++;
+        tokens.add(new Token(type, start, null));
+    }
+
+    /**
+     * Consume the next character if it is an equals sign.
+     */
+    private boolean equalsFollows() {
+        if (peek(1) == '=') {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private char peek(final int offset) {
+        final int index = position + offset;
+        return index < source.length() ? source.charAt(index) : 0;
+    }
+
+    private @NotNull ExpressionException error(final int position, final @NotNull String message) {
+        return new ExpressionException(message + " at position " + position);
+    }
+
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isIdentifierPart(final char c) {
+        return (c != 0 && Character.isJavaIdentifierPart(c)) || c == '.'
+                || c == Expression.MARKER_START || c == Expression.MARKER_END;
+    }
+}
@@ -0,0 +1,191 @@
+package com.extendedclip.deluxemenus.requirement.expression;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A node of the syntax tree of an expression.
+ */
+interface Node {
+
+    /**
+     * @param values     the resolved arguments and placeholders of the expression
+     * @param javascript true if the expression was translated from javascript
+     * @return a {@link Double}, {@link String} or {@link Boolean}
+     * @throws ExpressionException if a placeholder has a value that can not be evaluated natively
+     */
+    @NotNull Object evaluate(@NotNull String @NotNull [] values, boolean javascript) throws ExpressionException;
+
+    final class Constant implements Node {
+        private final Object value;
+
+        Constant(final @NotNull Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public @NotNull Object evaluate(final @NotNull String @NotNull [] values, final boolean javascript) {
+            return value;
+        }
+    }
+
+    /**
+     * An argument or placeholder used outside of a string.
+     */
+    final class Slot implements Node {
+        private final int index;
+
+        Slot(final int index) {
+            this.index = index;
+        }
+
+        @Override
+        public @NotNull Object evaluate(final @NotNull String @NotNull [] values, final boolean javascript)
+                throws ExpressionException {
+            final Object value = Values.fromPlaceholder(values[index], javascript);
+            if (value == null) {
+                throw new ExpressionException("Value '" + values[index] + "' is not a number or a boolean");
+            }
+            return value;
+        }
+    }
+
+    /**
+     * A string literal that contains arguments or placeholders.
+     */
+    final class Text implements Node {
+        // Strings and Integers, the indexes of the arguments and placeholders.
+        private final Object[] parts;
+
+        Text(final @NotNull List<Object> parts) {
+            this.parts = parts.toArray();
+        }
+
+        @Override
+        public @NotNull Object evaluate(final @NotNull String @NotNull [] values, final boolean javascript) {
+            final StringBuilder builder = new StringBuilder();
+            for (final Object part : parts) {
+                builder.append(part instanceof Integer ? values[(Integer) part] : (String) part);
+            }
+            return builder.toString();
+        }
+    }
+
+    final class Unary implements Node {
+        private final Token.Type operator;
+        private final Node operand;
+
+        Unary(final @NotNull Token.Type operator, final @NotNull Node operand) {
+            this.operator = operator;
+            this.operand = operand;
+        }
+
+        @Override
+        public @NotNull Object evaluate(final @NotNull String @NotNull [] values, final boolean javascript)
+                throws ExpressionException {
+            final Object value = operand.evaluate(values, javascript);
+            switch (operator) {
+                case NOT:
+                    return !Values.toBoolean(value);
+                case MINUS:
+                    return -Values.toNumber(value, javascript);
+                case PLUS:
+                    return Values.toNumber(value, javascript);
+                default:
+                    throw new IllegalStateException("Unknown unary operator: " + operator);
+            }
+        }
+    }
+
+    /**
+     * {@code &&} and {@code ||}. Like in javascript, the result is one of the operands and the right operand is only
+     * evaluated if needed.
+     */
+    final class Logical implements Node {
+        private final boolean and;
+        private final Node left;
+        private final Node right;
+
+        Logical(final boolean and, final @NotNull Node left, final @NotNull Node right) {
+            this.and = and;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public @NotNull Object evaluate(final @NotNull String @NotNull [] values, final boolean javascript)
+                throws ExpressionException {
+            final Object value = left.evaluate(values, javascript);
+            if (Values.toBoolean(value) != and) {
+                return value;
+            }
+            return right.evaluate(values, javascript);
+        }
+    }
+
+    final class Binary implements Node {
+        private final Token.Type operator;
+        private final Node left;
+        private final Node right;
+
+        Binary(final @NotNull Token.Type operator, final @NotNull Node left, final @NotNull Node right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public @NotNull Object evaluate(final @NotNull String @NotNull [] values, final boolean javascript)
+                throws ExpressionException {
+            final Object leftValue = left.evaluate(values, javascript);
+            final Object rightValue = right.evaluate(values, javascript);
+
+            switch (operator) {
+                case PLUS:
+                    if (leftValue instanceof String || rightValue instanceof String) {
+                        return Values.toString(leftValue) + Values.toString(rightValue);
+                    }
+                    return Values.toNumber(leftValue, javascript) + Values.toNumber(rightValue, javascript);
+                case MINUS:
+                    return Values.toNumber(leftValue, javascript) - Values.toNumber(rightValue, javascript);
+                case STAR:
+                    return Values.toNumber(leftValue, javascript) * Values.toNumber(rightValue, javascript);
+                case SLASH:
+                    return Values.toNumber(leftValue, javascript) / Values.toNumber(rightValue, javascript);
+                case PERCENT:
+                    return Values.toNumber(leftValue, javascript) % Values.toNumber(rightValue, javascript);
+                case EQUAL:
+                case NOT_EQUAL: {
+                    // Like the comparison requirements, a native value that is not a number never matches.
+                    final Boolean equal = Values.looseEquals(leftValue, rightValue, javascript);
+                    return equal != null && equal == (operator == Token.Type.EQUAL);
+                }
+                case STRICT_EQUAL:
+                    return Values.strictEquals(leftValue, rightValue);
+                case STRICT_NOT_EQUAL:
+                    return !Values.strictEquals(leftValue, rightValue);
+                default:
+                    break;
+            }
+
+            final Integer comparison = Values.compare(leftValue, rightValue, javascript);
+            if (comparison == null) {
+                return false;
+            }
+
+            switch (operator) {
+                case LESS:
+                    return comparison < 0;
+                case LESS_EQUAL:
+                    return comparison <= 0;
+                case GREATER:
+                    return comparison > 0;
+                case GREATER_EQUAL:
+                    return comparison >= 0;
+                default:
+                    throw new IllegalStateException("Unknown binary operator: " + operator);
+            }
+        }
+    }
+}
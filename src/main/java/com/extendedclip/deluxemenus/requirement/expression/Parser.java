@@ -0,0 +1,163 @@
+package com.extendedclip.deluxemenus.requirement.expression;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Builds the syntax tree of an expression. Operators have the same precedence as in javascript, from lowest to
+ * highest: {@code ||}, {@code &&}, equality, comparison, {@code + -}, {@code * / %} and unary {@code ! - +}.
+ */
+final class Parser {
+
+    private final List<Token> tokens;
+    private int position;
+
+    private Parser(final @NotNull List<Token> tokens) {
+        this.tokens = tokens;
+    }
+
+    static @NotNull Node parse(final @NotNull List<Token> tokens) throws ExpressionException {
+        final Parser parser = new Parser(tokens);
+        final Node node = parser.or();
+        if (parser.peek().type() != Token.Type.END) {
+            throw parser.unexpected();
+        }
+        return node;
+    }
+
+    private @NotNull Node or() throws ExpressionException {
+        Node node = and();
+        while (match(Token.Type.OR)) {
+            node = new Node.Logical(false, node, and());
+        }
+        return node;
+    }
+
+    private @NotNull Node and() throws ExpressionException {
+        Node node = equality();
+        while (match(Token.Type.AND)) {
+            node = new Node.Logical(true, node, equality());
+        }
+        return node;
+    }
+
+    private @NotNull Node equality() throws ExpressionException {
+        Node node = comparison();
+        while (true) {
+            final Token.Type type = peek().type();
+            if (type != Token.Type.EQUAL && type != Token.Type.NOT_EQUAL
+                    && type != Token.Type.STRICT_EQUAL && type != Token.Type.STRICT_NOT_EQUAL) {
+                return node;
+            }
+            position++;
+            node = new Node.Binary(type, node, comparison());
+        }
+    }
+
+    private @NotNull Node comparison() throws ExpressionException {
+        Node node = additive();
+        while (true) {
+            final Token.Type type = peek().type();
+            if (type != Token.Type.LESS && type != Token.Type.LESS_EQUAL
+                    && type != Token.Type.GREATER && type != Token.Type.GREATER_EQUAL) {
+                return node;
+            }
+            position++;
+            node = new Node.Binary(type, node, additive());
+        }
+    }
+
+    private @NotNull Node additive() throws ExpressionException {
+        Node node = multiplicative();
+        while (true) {
+            final Token.Type type = peek().type();
+            if (type != Token.Type.PLUS && type != Token.Type.MINUS) {
+                return node;
+            }
+            position++;
+            node = new Node.Binary(type, node, multiplicative());
+        }
+    }
+
+    private @NotNull Node multiplicative() throws ExpressionException {
+        Node node = unary();
+        while (true) {
+            final Token.Type type = peek().type();
+            if (type != Token.Type.STAR && type != Token.Type.SLASH && type != Token.Type.PERCENT) {
+                return node;
+            }
+            position++;
+            node = new Node.Binary(type, node, unary());
+        }
+    }
+
+    private @NotNull Node unary() throws ExpressionException {
+        final Token.Type type = peek().type();
+        if (type == Token.Type.NOT || type == Token.Type.MINUS || type == Token.Type.PLUS) {
+            position++;
+            return new Node.Unary(type, unary());
+        }
+        return primary();
+    }
+
+    private @NotNull Node primary() throws ExpressionException {
+        final Token token = peek();
+        switch (token.type()) {
+            case NUMBER:
+                position++;
+                return new Node.Constant(token.number());
+            case BOOLEAN:
+                position++;
+                return new Node.Constant(token.bool());
+            case SLOT:
+                position++;
+                return new Node.Slot(token.slot());
+            case STRING:
+                position++;
+                return string(token.parts());
+            case LEFT_PARENTHESIS:
+                position++;
+                final Node node = or();
+                if (!match(Token.Type.RIGHT_PARENTHESIS)) {
+                    throw unexpected();
+                }
+                return node;
+            default:
+                throw unexpected();
+        }
+    }
+
+    private static @NotNull Node string(final @NotNull List<Object> parts) {
+        final StringBuilder builder = new StringBuilder();
+        for (final Object part : parts) {
+            if (part instanceof Integer) {
+                return new Node.Text(parts);
+            }
+            builder.append((String) part);
+        }
+        return new Node.Constant(builder.toString());
+    }
+
+    private boolean match(final @NotNull Token.Type type) {
+        if (peek().type() != type) {
+            return false;
+        }
+        position++;
+        return true;
+    }
+
+    private @NotNull Token peek() {
+        return tokens.get(position);
+    }
+
+    private @NotNull ExpressionException unexpected() {
+        final Token token = peek();
+        if (token.type() == Token.Type.END) {
+            return new ExpressionException("Unexpected end of expression");
+        }
+        return new ExpressionException("Unexpected " + token.type().name().toLowerCase(Locale.ROOT).replace('_', ' ')
+                + " at position " + token.position());
+    }
+}
@@ -0,0 +1,56 @@
+package com.extendedclip.deluxemenus.requirement.expression;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+final class Token {
+
+    enum Type {
+        NUMBER, STRING, SLOT, BOOLEAN,
+        PLUS, MINUS, STAR, SLASH, PERCENT,
+        EQUAL, NOT_EQUAL, STRICT_EQUAL, STRICT_NOT_EQUAL,
+        LESS, LESS_EQUAL, GREATER, GREATER_EQUAL,
+        AND, OR, NOT,
+        LEFT_PARENTHESIS, RIGHT_PARENTHESIS,
+        END
+    }
+
+    private final Type type;
+    private final int position;
+    // A Double for numbers, a Boolean for booleans, an Integer for slots, and a List of Strings and Integers (slots) for
+    // strings.
+    private final Object value;
+
+    Token(final @NotNull Type type, final int position, final @Nullable Object value) {
+        this.type = type;
+        this.position = position;
+        this.value = value;
+    }
+
+    @NotNull Type type() {
+        return type;
+    }
+
+    int position() {
+        return position;
+    }
+
+    double number() {
+        return (Double) value;
+    }
+
+    boolean bool() {
+        return (Boolean) value;
+    }
+
+    int slot() {
+        return (Integer) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    @NotNull List<Object> parts() {
+        return (List<Object>) value;
+    }
+}
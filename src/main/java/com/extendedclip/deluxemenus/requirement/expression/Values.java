@@ -0,0 +1,218 @@
+package com.extendedclip.deluxemenus.requirement.expression;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Conversions and comparisons between the values of an expression: {@link Double}, {@link String} and
+ * {@link Boolean}.
+ * <br>
+ * Native expressions compare values the same way the comparison requirements do: numbers are read with
+ * {@link Double#parseDouble(String)}, a value that is not a number never matches a comparison, and two strings are
+ * only equal if they are exactly the same. Expressions translated from javascript follow javascript instead.
+ */
+final class Values {
+
+    private static final Pattern DECIMAL = Pattern.compile("[+-]?(?:\\d+\\.?\\d*|\\.\\d+)(?:[eE][+-]?\\d+)?");
+    private static final Pattern HEXADECIMAL = Pattern.compile("0[xX][0-9a-fA-F]+");
+    // Numbers that javascript reads the same way as Java when they are used as code.
+    private static final Pattern JAVASCRIPT_LITERAL = Pattern.compile("-?(?:0|[1-9]\\d*)(?:\\.\\d+)?");
+
+    private Values() {
+        throw new AssertionError("Util classes should not be initialized");
+    }
+
+    /**
+     * Convert the value of a placeholder used outside of a string.
+     *
+     * @param value      the value of the placeholder
+     * @param javascript true to only accept values that javascript would read as a number or a boolean
+     * @return the converted value, or null if javascript mode is enabled and the value is not a number or a boolean
+     */
+    static @Nullable Object fromPlaceholder(final @NotNull String value, final boolean javascript) {
+        if (value.equals("true")) {
+            return Boolean.TRUE;
+        }
+        if (value.equals("false")) {
+            return Boolean.FALSE;
+        }
+
+        if (javascript) {
+            return JAVASCRIPT_LITERAL.matcher(value).matches() ? Double.parseDouble(value) : null;
+        }
+
+        final Double number = parseDouble(value);
+        return number != null ? number : value;
+    }
+
+    static double toNumber(final @NotNull Object value, final boolean javascript) {
+        if (!javascript && value instanceof String) {
+            final Double number = parseDouble((String) value);
+            return number != null ? number : Double.NaN;
+        }
+        if (value instanceof Double) {
+            return (Double) value;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+
+        final String string = ((String) value).trim();
+        if (string.isEmpty()) {
+            return 0;
+        }
+        final Double number = parseNumber(string);
+        return number != null ? number : Double.NaN;
+    }
+
+    static boolean toBoolean(final @NotNull Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof Double) {
+            final double number = (Double) value;
+            return number != 0 && !Double.isNaN(number);
+        }
+        return !((String) value).isEmpty();
+    }
+
+    static @NotNull String toString(final @NotNull Object value) {
+        if (value instanceof Double) {
+            return formatNumber((Double) value);
+        }
+        return value.toString();
+    }
+
+    /**
+     * Compare two values with {@code ==}. Two strings or two booleans are equal if they are the same, anything else is
+     * compared as numbers. Native values that are neither are compared as strings.
+     *
+     * @return true if the values are equal, false if they are not, or null if a native value is not a number
+     */
+    static @Nullable Boolean looseEquals(final @NotNull Object left, final @NotNull Object right,
+                                         final boolean javascript) {
+        if (left instanceof String && right instanceof String) {
+            return left.equals(right);
+        }
+        if (left instanceof Boolean && right instanceof Boolean) {
+            return left.equals(right);
+        }
+        if (javascript) {
+            return toNumber(left, true) == toNumber(right, true);
+        }
+        if (!(left instanceof Double) && !(right instanceof Double)) {
+            return left.toString().equals(right.toString());
+        }
+
+        final Double leftNumber = toStrictNumber(left);
+        final Double rightNumber = toStrictNumber(right);
+        if (leftNumber == null || rightNumber == null) {
+            return null;
+        }
+        return (double) leftNumber == rightNumber;
+    }
+
+    static boolean strictEquals(final @NotNull Object left, final @NotNull Object right) {
+        if (left instanceof Double && right instanceof Double) {
+            return (double) (Double) left == (Double) right;
+        }
+        return left.equals(right);
+    }
+
+    /**
+     * Compare two values. Native values are always compared as numbers. In javascript, two strings are compared
+     * alphabetically and anything else as numbers.
+     *
+     * @return a negative number, zero or a positive number, or null if a value is not a number
+     */
+    static @Nullable Integer compare(final @NotNull Object left, final @NotNull Object right,
+                                     final boolean javascript) {
+        if (javascript && left instanceof String && right instanceof String) {
+            return ((String) left).compareTo((String) right);
+        }
+
+        final double leftNumber;
+        final double rightNumber;
+        if (javascript) {
+            leftNumber = toNumber(left, true);
+            rightNumber = toNumber(right, true);
+        } else {
+            final Double leftStrict = toStrictNumber(left);
+            final Double rightStrict = toStrictNumber(right);
+            if (leftStrict == null || rightStrict == null) {
+                return null;
+            }
+            leftNumber = leftStrict;
+            rightNumber = rightStrict;
+        }
+
+        if (Double.isNaN(leftNumber) || Double.isNaN(rightNumber)) {
+            return null;
+        }
+        return leftNumber < rightNumber ? -1 : (leftNumber > rightNumber ? 1 : 0);
+    }
+
+    /**
+     * Read a native value as a number, the way the comparison requirements read their input.
+     *
+     * @return the number, or null if the value is a boolean or a string that is not a number
+     */
+    private static @Nullable Double toStrictNumber(final @NotNull Object value) {
+        if (value instanceof Double) {
+            return (Double) value;
+        }
+        return value instanceof String ? parseDouble((String) value) : null;
+    }
+
+    private static @Nullable Double parseDouble(final @NotNull String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (final NumberFormatException exception) {
+            return null;
+        }
+    }
+
+    private static @Nullable Double parseNumber(final @NotNull String value) {
+        final String string = value.trim();
+        if (DECIMAL.matcher(string).matches()) {
+            return Double.parseDouble(string);
+        }
+        if (HEXADECIMAL.matcher(string).matches()) {
+            return new BigInteger(string.substring(2), 16).doubleValue();
+        }
+
+        switch (string) {
+            case "Infinity":
+            case "+Infinity":
+                return Double.POSITIVE_INFINITY;
+            case "-Infinity":
+                return Double.NEGATIVE_INFINITY;
+            default:
+                return null;
+        }
+    }
+
+    private static @NotNull String formatNumber(final double number) {
+        if (Double.isNaN(number)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(number)) {
+            return number > 0 ? "Infinity" : "-Infinity";
+        }
+        if (number == 0) {
+            return "0";
+        }
+
+        final double absolute = Math.abs(number);
+        if (absolute >= 1e-6 && absolute < 1e21) {
+            return new BigDecimal(Double.toString(number)).stripTrailingZeros().toPlainString();
+        }
+
+        final String string = Double.toString(number).replace(".0E", "E");
+        return string.contains("E-") ? string.replace('E', 'e') : string.replace("E", "e+");
+    }
+}
@@ -0,0 +1,347 @@
+package com.extendedclip.deluxemenus.requirement.javascript;
+
+import com.extendedclip.deluxemenus.DeluxeMenus;
+import com.extendedclip.deluxemenus.utils.LatencyHistogram;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.RegisteredServiceProvider;
+import org.bukkit.plugin.ServicePriority;
+import org.bukkit.plugin.ServicesManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.nashorn.api.scripting.JSObject;
+import org.openjdk.nashorn.api.scripting.NashornScriptEngineFactory;
+
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded pool of javascript engines. Requirements are evaluated on async threads while menus open and refresh, so
+ * each evaluation borrows an engine for itself. When every engine is in use, async evaluations wait a short time for
+ * one to be returned. Server threads (eg. click requirements) never wait, they and the async evaluations that waited
+ * too long evaluate on a temporary engine that is discarded afterwards.
+ * <br>
+ * Each engine keeps the scripts it compiled, so a script is only parsed once per engine. An expression is compiled
+ * as a function that takes the variables (eg. {@code BukkitPlayer}) as parameters, and every evaluation calls it with
+ * its own values. The variables stay local to the call, so they never leak into later evaluations, and the global
+ * scope of the engine is reused instead of being set up again. Scripts that are not a single expression (eg. that
+ * declare variables) are evaluated in a new global scope every time instead, which is a lot slower.
+ * <br>
+ * Engines are created by the shared {@link ScriptEngineManager} service, so its global bindings (eg.
+ * {@code BukkitServer}) stay visible to the scripts.
+ */
+public class ScriptEnginePool {
+
+    private static final String ENGINE_NAME = "JavaScript";
+    private static final int MAX_SCRIPTS_PER_ENGINE = 512;
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private final DeluxeMenus plugin;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<Engine> idle = new ArrayDeque<>();
+    private int created;
+    private final LongAdder temporary = new LongAdder();
+    private ScriptEngineManager manager;
+
+    private volatile LatencyHistogram waits = new LatencyHistogram();
+    private volatile LatencyHistogram evaluations = new LatencyHistogram();
+
+    public ScriptEnginePool(final @NotNull DeluxeMenus plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Evaluate a script on an engine of the pool, waiting a short time for one to be available if needed. Server
+     * threads never wait.
+     *
+     * @param source    the source of the script
+     * @param variables the variables to set while evaluating the script
+     * @return the result of the script
+     * @throws ScriptException if the script can not be compiled or throws an error
+     */
+    public @Nullable Object eval(final @NotNull String source, final @NotNull Map<String, Object> variables)
+            throws ScriptException {
+        final Engine engine = acquire();
+        try {
+            final Script script = engine.compile(source, variables);
+
+            final long start = System.nanoTime();
+            final Object result = script.eval(engine.engine, variables);
+            evaluations.record(System.nanoTime() - start);
+            return result;
+        } finally {
+            release(engine);
+        }
+    }
+
+    private @NotNull Engine acquire() {
+        final boolean serverThread = Bukkit.isPrimaryThread();
+        boolean temporaryEngine = false;
+        lock.lock();
+        try {
+            long waitStart = 0;
+            long remaining = MAX_WAIT_NANOS;
+            while (true) {
+                final Engine engine = idle.pollFirst();
+                if (engine != null) {
+                    recordWait(waitStart);
+                    return engine;
+                }
+
+                if (created < getSize()) {
+                    created++;
+                    recordWait(waitStart);
+                    break;
+                }
+
+                if (serverThread || remaining <= 0) {
+                    recordWait(waitStart);
+                    temporaryEngine = true;
+                    break;
+                }
+
+                if (waitStart == 0) {
+                    waitStart = System.nanoTime();
+                }
+                try {
+                    remaining = available.awaitNanos(remaining);
+                } catch (final InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    remaining = 0;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (temporaryEngine) {
+            temporary.increment();
+            return createEngine(true);
+        }
+
+        try {
+            return createEngine(false);
+        } catch (final RuntimeException exception) {
+            lock.lock();
+            try {
+                created--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw exception;
+        }
+    }
+
+    private void release(final @NotNull Engine engine) {
+        if (engine.temporary) {
+            return;
+        }
+
+        lock.lock();
+        try {
+            // The pool was made smaller by a reload.
+            if (created > getSize()) {
+                created--;
+            } else {
+                idle.addFirst(engine);
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordWait(final long waitStart) {
+        waits.record(waitStart == 0 ? 0 : System.nanoTime() - waitStart);
+    }
+
+    private @NotNull Engine createEngine(final boolean temporary) {
+        final ScriptEngine engine = getManager().getEngineByName(ENGINE_NAME);
+        if (!(engine instanceof Compilable)) {
+            throw new IllegalStateException("The " + ENGINE_NAME + " script engine can not compile scripts");
+        }
+        return new Engine(engine, temporary);
+    }
+
+    private synchronized @NotNull ScriptEngineManager getManager() {
+        if (manager != null) {
+            return manager;
+        }
+
+        final ServicesManager services = Bukkit.getServer().getServicesManager();
+        if (services.isProvidedFor(ScriptEngineManager.class)) {
+            final RegisteredServiceProvider<ScriptEngineManager> provider = services.getRegistration(ScriptEngineManager.class);
+            manager = provider.getProvider();
+        } else {
+            manager = new ScriptEngineManager();
+            services.register(ScriptEngineManager.class, manager, plugin, ServicePriority.Highest);
+        }
+        manager.registerEngineName(ENGINE_NAME, new NashornScriptEngineFactory());
+        manager.put("BukkitServer", Bukkit.getServer());
+        return manager;
+    }
+
+    /**
+     * @return the maximum amount of engines, the configured pool size or the amount of available processors
+     */
+    public int getSize() {
+        final int size = plugin.getGeneralConfig().javascriptEnginePoolSize();
+        return size > 0 ? size : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * @return the amount of engines created so far
+     */
+    public int getCreated() {
+        lock.lock();
+        try {
+            return created;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the amount of temporary engines created because the pool had no engine available
+     */
+    public long getTemporary() {
+        return temporary.sum();
+    }
+
+    /**
+     * @return the amount of engines that are not evaluating a script
+     */
+    public int getIdle() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return how long evaluations waited for an engine, including the ones that did not wait
+     */
+    public @NotNull LatencyHistogram getWaits() {
+        return waits;
+    }
+
+    /**
+     * @return how long scripts took to evaluate, compiling excluded
+     */
+    public @NotNull LatencyHistogram getEvaluations() {
+        return evaluations;
+    }
+
+    public void resetMetrics() {
+        waits = new LatencyHistogram();
+        evaluations = new LatencyHistogram();
+        temporary.reset();
+    }
+
+    private static final class Engine {
+        private final ScriptEngine engine;
+        private final boolean temporary;
+        private final Map<String, Script> scripts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Script> eldest) {
+                return size() > MAX_SCRIPTS_PER_ENGINE;
+            }
+        };
+
+        private Engine(final @NotNull ScriptEngine engine, final boolean temporary) {
+            this.engine = engine;
+            this.temporary = temporary;
+        }
+
+        private @NotNull Script compile(final @NotNull String source, final @NotNull Map<String, Object> variables)
+                throws ScriptException {
+            final String[] parameters = new TreeSet<>(variables.keySet()).toArray(new String[0]);
+            final String key = String.join(",", parameters) + '\n' + source;
+
+            Script script = scripts.get(key);
+            if (script == null) {
+                script = Script.compile(engine, source, parameters);
+                scripts.put(key, script);
+            }
+            return script;
+        }
+    }
+
+    /**
+     * A compiled script, either a function of an expression or a whole script.
+     */
+    private static final class Script {
+        private final String[] parameters;
+        private final JSObject function;
+        private final CompiledScript script;
+
+        private Script(final @NotNull String @NotNull [] parameters, final @Nullable JSObject function,
+                       final @Nullable CompiledScript script) {
+            this.parameters = parameters;
+            this.function = function;
+            this.script = script;
+        }
+
+        private static @NotNull Script compile(final @NotNull ScriptEngine engine, final @NotNull String source,
+                                               final @NotNull String @NotNull [] parameters) throws ScriptException {
+            String expression = source.trim();
+            while (expression.endsWith(";")) {
+                expression = expression.substring(0, expression.length() - 1).trim();
+            }
+
+            final CompiledScript wrapper;
+            try {
+                // The line break keeps a trailing line comment from commenting out the end of the function.
+                wrapper = ((Compilable) engine).compile(
+                        "(function(" + String.join(", ", parameters) + ") { return (" + expression + "\n); })"
+                );
+            } catch (final ScriptException exception) {
+                // Not a single expression.
+                return new Script(parameters, null, ((Compilable) engine).compile(source));
+            }
+
+            final Object function = wrapper.eval();
+            if (!(function instanceof JSObject)) {
+                return new Script(parameters, null, ((Compilable) engine).compile(source));
+            }
+            return new Script(parameters, (JSObject) function, null);
+        }
+
+        private @Nullable Object eval(final @NotNull ScriptEngine engine, final @NotNull Map<String, Object> variables)
+                throws ScriptException {
+            if (function == null) {
+                final Bindings bindings = engine.createBindings();
+                bindings.putAll(variables);
+                return script.eval(bindings);
+            }
+
+            final Object[] arguments = new Object[parameters.length];
+            for (int i = 0; i < parameters.length; i++) {
+                arguments[i] = variables.get(parameters[i]);
+            }
+
+            try {
+                return function.call(null, arguments);
+            } catch (final RuntimeException exception) {
+                // Evaluating a compiled script reports errors the same way.
+                throw new ScriptException(exception);
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.extendedclip.deluxemenus.requirement.javascript;
+
+import com.extendedclip.deluxemenus.menu.MenuHolder;
+import com.extendedclip.deluxemenus.utils.StringTemplate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * A javascript expression whose arguments and placeholders are passed to the script as variables instead of being
+ * replaced in its source. The source stays the same for every evaluation, so it only has to be compiled once.
+ * <br>
+ * Arguments and placeholders inside a string literal (eg. {@code '%vault_group%' == 'vip'}) are passed as strings.
+ * Arguments and placeholders used as code (eg. {@code %player_level% >= 30}) are passed as numbers or booleans. If
+ * such a value is anything else, or the expression uses syntax that can not be analyzed safely (regular expression
+ * literals, comments, template literals, placeholders inside identifiers), the resolved values are replaced in the
+ * source like before.
+ */
+public final class ScriptTemplate {
+
+    private static final char MARKER_START = '\uE000';
+    private static final char MARKER_END = '\uE001';
+    private static final String VARIABLE_PREFIX = "__deluxemenus_";
+    // Only plain decimal literals, which javascript reads the same way as Java.
+    private static final Pattern NUMBER = Pattern.compile("-?(?:0|[1-9]\\d*)(?:\\.\\d+)?");
+
+    private final StringTemplate template;
+    private final String source;
+    private final boolean[] quoted;
+
+    private ScriptTemplate(final @NotNull StringTemplate template, final @Nullable String source,
+                           final boolean @Nullable [] quoted) {
+        this.template = template;
+        this.source = source;
+        this.quoted = quoted;
+    }
+
+    public static @NotNull ScriptTemplate compile(final @NotNull String expression) {
+        final StringTemplate template = StringTemplate.compile(expression);
+        if (template.isConstant()) {
+            return new ScriptTemplate(template, expression, new boolean[0]);
+        }
+
+        if (!template.isSegmented() || expression.indexOf(MARKER_START) != -1 || expression.indexOf(MARKER_END) != -1) {
+            return new ScriptTemplate(template, null, null);
+        }
+
+        final int[] slots = {0};
+        final String marked = template.join(index -> {
+            slots[0]++;
+            return String.valueOf(MARKER_START) + index + MARKER_END;
+        });
+
+        final boolean[] quoted = new boolean[slots[0]];
+        final String source = bind(marked, quoted);
+        return new ScriptTemplate(template, source, source == null ? null : quoted);
+    }
+
+    /**
+     * Get the source to evaluate for a holder.
+     *
+     * @param holder    the holder to resolve the arguments and placeholders for
+     * @param variables the map to put the variables of the source in
+     * @return the source to evaluate
+     */
+    public @NotNull String prepare(final @NotNull MenuHolder holder, final @NotNull Map<String, Object> variables) {
+        if (source == null) {
+            return holder.render(template);
+        }
+
+        if (quoted.length == 0) {
+            return source;
+        }
+
+        final String[] values = holder.resolveValues(template);
+        for (int i = 0; i < values.length; i++) {
+            final Object value = quoted[i] ? values[i] : toLiteral(values[i]);
+            if (value == null) {
+                variables.clear();
+                return template.join(index -> values[index]);
+            }
+            variables.put(VARIABLE_PREFIX + i, value);
+        }
+        return source;
+    }
+
+    /**
+     * Render the expression with its arguments and placeholders replaced by their values.
+     *
+     * @param holder the holder to resolve the arguments and placeholders for
+     * @return the rendered expression
+     */
+    public @NotNull String render(final @NotNull MenuHolder holder) {
+        return holder.render(template);
+    }
+
+    /**
+     * @return the configured expression
+     */
+    public @NotNull String raw() {
+        return template.raw();
+    }
+
+    private static @Nullable Object toLiteral(final @NotNull String value) {
+        if (value.equals("true")) {
+            return Boolean.TRUE;
+        }
+        if (value.equals("false")) {
+            return Boolean.FALSE;
+        }
+        if (!NUMBER.matcher(value).matches()) {
+            return null;
+        }
+
+        if (value.indexOf('.') == -1) {
+            try {
+                return Integer.parseInt(value);
+            } catch (final NumberFormatException ignored) {
+                // Too large for an int, javascript numbers are doubles anyway.
+            }
+        }
+        return Double.parseDouble(value);
+    }
+
+    /**
+     * Replace the markers of a marked expression by variables.
+     *
+     * @param marked the expression, with a marker in place of each argument and placeholder
+     * @param quoted set to true for each marker found inside a string literal
+     * @return the source with variables, or null if the expression can not be analyzed safely
+     */
+    private static @Nullable String bind(final @NotNull String marked, final boolean @NotNull [] quoted) {
+        final StringBuilder builder = new StringBuilder(marked.length() + 16 * quoted.length);
+        char quote = 0;
+        int literalStart = -1;
+        boolean literalSplit = false;
+
+        int i = 0;
+        while (i < marked.length()) {
+            final char c = marked.charAt(i);
+
+            if (c == MARKER_START) {
+                final int end = marked.indexOf(MARKER_END, i);
+                final int index = Integer.parseInt(marked.substring(i + 1, end));
+                final String variable = VARIABLE_PREFIX + index;
+
+                if (quote == 0) {
+                    if ((i > 0 && isIdentifierPart(marked.charAt(i - 1)))
+                            || (end + 1 < marked.length() && isIdentifierPart(marked.charAt(end + 1)))) {
+                        return null;
+                    }
+                    builder.append(variable);
+                } else if (builder.length() - 1 == literalStart && end + 1 < marked.length() && marked.charAt(end + 1) == quote) {
+                    // The whole literal is the placeholder: use the variable instead of the literal.
+                    builder.setLength(literalStart);
+                    builder.append(variable);
+                    quoted[index] = true;
+                    quote = 0;
+                    i = end + 2;
+                    continue;
+                } else {
+                    builder.append(quote).append(" + ").append(variable).append(" + ").append(quote);
+                    quoted[index] = true;
+                    literalSplit = true;
+                }
+                i = end + 1;
+                continue;
+            }
+
+            if (quote != 0) {
+                builder.append(c);
+                if (c == '\\') {
+                    if (i + 1 >= marked.length() || marked.charAt(i + 1) == MARKER_START) {
+                        return null;
+                    }
+                    builder.append(marked.charAt(i + 1));
+                    i += 2;
+                    continue;
+                }
+
+                if (c == quote) {
+                    if (literalSplit) {
+                        // Keep the concatenation together, eg. for 'a%b%c'.length
+                        builder.insert(literalStart, '(').append(')');
+                    }
+                    quote = 0;
+                }
+                i++;
+                continue;
+            }
+
+            if (c == '`' || c == '/') {
+                return null;
+            }
+
+            if (c == '\'' || c == '"') {
+                quote = c;
+                literalStart = builder.length();
+                literalSplit = false;
+            }
+            builder.append(c);
+            i++;
+        }
+
+        return quote == 0 ? builder.toString() : null;
+    }
+
+    private static boolean isIdentifierPart(final char c) {
+        return Character.isJavaIdentifierPart(c) || c == '.' || c == MARKER_START || c == MARKER_END;
+    }
+}
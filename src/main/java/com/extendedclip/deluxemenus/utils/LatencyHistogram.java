@@ -0,0 +1,68 @@
+package com.extendedclip.deluxemenus.utils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock free histogram of durations in nanoseconds. Durations are counted in power of two buckets, so percentiles
+ * are approximate: a reported percentile is at most twice the real value, and never more than the maximum.
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        buckets.incrementAndGet(value == 0 ? 0 : 63 - Long.numberOfLeadingZeros(value));
+        count.increment();
+        total.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long totalNanos() {
+        return total.sum();
+    }
+
+    public long maxNanos() {
+        return max.get();
+    }
+
+    /**
+     * @param percentile the percentile to get, between 0 and 1
+     * @return the upper bound of the bucket the percentile falls into, capped by the maximum recorded duration
+     */
+    public long percentileNanos(final double percentile) {
+        final long count = count();
+        if (count == 0) {
+            return 0;
+        }
+
+        final long target = Math.max(1, (long) Math.ceil(count * percentile));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += buckets.get(bucket);
+            if (seen >= target) {
+                final long upperBound = bucket >= 62 ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1;
+                return Math.min(upperBound, maxNanos());
+            }
+        }
+        return maxNanos();
+    }
+
+    public static @NotNull String formatMillis(final long nanos) {
+        return String.format(Locale.ROOT, "%.3fms", nanos / 1_000_000.0);
+    }
+}
@@ -78,6 +78,10 @@ public enum Messages {
             .append(newline())
             .append(text(">", NamedTextColor.AQUA))
             .append(space().append(space()))
+            .append(text("/dm profile <placeholders|javascript|requirements> [reset]", NamedTextColor.WHITE))
+            .append(newline())
+            .append(text(">", NamedTextColor.AQUA))
+            .append(space().append(space()))
             .append(text("/dm reload [menu-name]", NamedTextColor.WHITE))),
 
     NO_PERMISSION(text("You don't have permission to do that!", NamedTextColor.RED)),
@@ -98,6 +102,8 @@ public enum Messages {
         .append(text("/dm open <menu-name> [player]", NamedTextColor.GRAY))),
     WRONG_USAGE_REFRESH_COMMAND(WRONG_USAGE_BASE.message
         .append(text("/dm refresh <menu-name>", NamedTextColor.GRAY))),
+    WRONG_USAGE_PROFILE_COMMAND(WRONG_USAGE_BASE.message
+            .append(text("/dm profile <placeholders|javascript|requirements> [reset]", NamedTextColor.GRAY))),
     PLAYER_IS_NOT_ONLINE(empty()
             .append(text("Player:", NamedTextColor.RED))
             .append(space())
@@ -145,6 +151,9 @@ public enum Messages {
         .append(text("menu refreshed for <amount> players...", NamedTextColor.YELLOW))
     ),
 
+    PROFILE_RESET(text("Profile data has been reset.", NamedTextColor.GREEN)),
+    PLACEHOLDER_PROFILER_DISABLED(text("The placeholder profiler is disabled. Enable placeholder_profiler.enabled in config.yml to collect timings.", NamedTextColor.YELLOW)),
+
     DUMP_FAILED(text("Failed to create and post dump!", NamedTextColor.RED)),
 
     DUMP_SUCCESS(text("Dump created successfully! Find it at: ", NamedTextColor.GREEN)),
@@ -0,0 +1,410 @@
+package com.extendedclip.deluxemenus.utils;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * A configured string that has been split once into literal, {@code {argument}} and {@code %placeholder%} segments.
+ * <br>
+ * Rendering a template only resolves its arguments and placeholders and joins the segments together. When rendering
+ * with colors, the literal segments are already translated and only the resolved values go through
+ * {@link StringUtils#color(String)}.
+ * <br>
+ * Strings that can not be split safely (eg. arguments used inside a placeholder, like {@code %statistic_{stat}%}) are
+ * rendered the same way as before templates existed, by replacing arguments and placeholders in the whole string.
+ */
+public final class StringTemplate {
+
+    private static final StringTemplate EMPTY = new StringTemplate("", new Segment[]{new Segment(SegmentType.LITERAL, "", "")}, false);
+
+    private final String raw;
+    private final Segment[] segments;
+    // True if the segments can not be rendered independently. See class documentation.
+    private final boolean fallback;
+    private final boolean constant;
+    private final String coloredConstant;
+
+    private StringTemplate(final @NotNull String raw, final @NotNull Segment @NotNull [] segments, final boolean fallback) {
+        this.raw = raw;
+        this.segments = segments;
+        this.fallback = fallback;
+
+        boolean constant = !fallback;
+        for (final Segment segment : segments) {
+            if (segment.type != SegmentType.LITERAL) {
+                constant = false;
+                break;
+            }
+        }
+        this.constant = constant;
+        this.coloredConstant = constant ? StringUtils.color(raw) : null;
+    }
+
+    /**
+     * Split a string into its segments.
+     *
+     * @param input the string to compile
+     * @return the compiled template
+     */
+    public static @NotNull StringTemplate compile(final @NotNull String input) {
+        if (input.isEmpty()) {
+            return EMPTY;
+        }
+
+        if (input.indexOf('%') == -1 && input.indexOf('{') == -1) {
+            return new StringTemplate(input, new Segment[]{new Segment(SegmentType.LITERAL, input, StringUtils.color(input))}, false);
+        }
+
+        final List<Segment> segments = new ArrayList<>();
+        final List<String> placeholders = new ArrayList<>();
+
+        // Placeholders are found exactly like PlaceholderAPI finds them.
+        StringUtils.replacePlaceholders(input, placeholder -> {
+            placeholders.add(placeholder);
+            return placeholder;
+        });
+
+        int index = 0;
+        int literalStart = 0;
+        int placeholderIndex = 0;
+        boolean fallback = false;
+
+        while (index < input.length()) {
+            final char c = input.charAt(index);
+
+            if (c == '%' && placeholderIndex < placeholders.size() && input.startsWith(placeholders.get(placeholderIndex), index)) {
+                final String placeholder = placeholders.get(placeholderIndex++);
+                addLiteral(segments, input.substring(literalStart, index));
+                segments.add(new Segment(SegmentType.PLACEHOLDER, placeholder, null));
+
+                // Arguments are replaced inside placeholders when placeholders are parsed after arguments.
+                if (placeholder.indexOf('{') != -1) {
+                    fallback = true;
+                }
+
+                index += placeholder.length();
+                literalStart = index;
+                continue;
+            }
+
+            if (c == '{') {
+                final int end = findArgumentEnd(input, index);
+                if (end != -1) {
+                    addLiteral(segments, input.substring(literalStart, index));
+                    segments.add(new Segment(SegmentType.ARGUMENT, input.substring(index + 1, end), null));
+                    index = end + 1;
+                    literalStart = index;
+                    continue;
+                }
+            }
+
+            index++;
+        }
+
+        addLiteral(segments, input.substring(literalStart));
+
+        // An argument or placeholder could complete a placeholder started by a literal. eg. '%{stat}_value%'
+        for (final Segment segment : segments) {
+            if (segment.type == SegmentType.LITERAL && segment.raw.indexOf('%') != -1 && segments.size() > 1) {
+                fallback = true;
+                break;
+            }
+        }
+
+        return new StringTemplate(input, segments.toArray(new Segment[0]), fallback);
+    }
+
+    private static int findArgumentEnd(final @NotNull String input, final int start) {
+        for (int i = start + 1; i < input.length(); i++) {
+            final char c = input.charAt(i);
+            if (c == '}') {
+                return i == start + 1 ? -1 : i;
+            }
+            if (c == '{' || c == '%') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static void addLiteral(final @NotNull List<Segment> segments, final @NotNull String literal) {
+        if (!literal.isEmpty()) {
+            segments.add(new Segment(SegmentType.LITERAL, literal, StringUtils.color(literal)));
+        }
+    }
+
+    /**
+     * @return the string this template was compiled from
+     */
+    public @NotNull String raw() {
+        return raw;
+    }
+
+    /**
+     * @return true if this template has no arguments or placeholders, and always renders to the same string
+     */
+    public boolean isConstant() {
+        return constant;
+    }
+
+    /**
+     * @return true if the arguments and placeholders of this template can be resolved one by one, see
+     * {@link #resolveValues(Resolver)} and {@link #join(IntFunction)}
+     */
+    public boolean isSegmented() {
+        return !fallback;
+    }
+
+    /**
+     * Resolve the arguments and placeholders of this template, in the order they appear in.
+     *
+     * @param resolver the resolver used for arguments and placeholders
+     * @return the resolved values
+     * @throws IllegalStateException if this template is not segmented
+     */
+    public @NotNull String @NotNull [] resolveValues(final @NotNull Resolver resolver) {
+        if (fallback) {
+            throw new IllegalStateException("Template can not be resolved one value at a time: " + raw);
+        }
+
+        final List<String> values = new ArrayList<>(segments.length);
+        for (final Segment segment : segments) {
+            if (segment.type != SegmentType.LITERAL) {
+                values.add(resolve(segment, resolver));
+            }
+        }
+        return values.toArray(new String[0]);
+    }
+
+    /**
+     * Join the literal parts of this template with the given values for its arguments and placeholders.
+     *
+     * @param values the value of each argument and placeholder, by the index they appear at
+     * @return the joined string
+     * @throws IllegalStateException if this template is not segmented
+     */
+    public @NotNull String join(final @NotNull IntFunction<String> values) {
+        if (fallback) {
+            throw new IllegalStateException("Template can not be resolved one value at a time: " + raw);
+        }
+
+        final StringBuilder builder = new StringBuilder(raw.length() + 16);
+        int index = 0;
+        for (final Segment segment : segments) {
+            builder.append(segment.type == SegmentType.LITERAL ? segment.raw : values.apply(index++));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Replace the arguments and placeholders of this template.
+     *
+     * @param resolver the resolver used for arguments and placeholders
+     * @return the rendered string
+     */
+    public @NotNull String render(final @NotNull Resolver resolver) {
+        if (constant) {
+            return raw;
+        }
+
+        if (fallback) {
+            return resolver.replacePlaceholdersAndArguments(raw);
+        }
+
+        if (segments.length == 1) {
+            return resolve(segments[0], resolver);
+        }
+
+        final StringBuilder builder = new StringBuilder(raw.length() + 16);
+        for (final Segment segment : segments) {
+            builder.append(segment.type == SegmentType.LITERAL ? segment.raw : resolve(segment, resolver));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Replace the arguments and placeholders of this template and translate its color codes. This is the same as
+     * {@code StringUtils.color(render(resolver))} but only the resolved values need to be translated.
+     *
+     * @param resolver the resolver used for arguments and placeholders
+     * @return the rendered and colored string
+     */
+    public @NotNull String renderColored(final @NotNull Resolver resolver) {
+        if (constant) {
+            return coloredConstant;
+        }
+
+        if (fallback) {
+            return StringUtils.color(resolver.replacePlaceholdersAndArguments(raw));
+        }
+
+        final String[] values = new String[segments.length];
+        int length = 0;
+        for (int i = 0; i < segments.length; i++) {
+            final Segment segment = segments[i];
+            values[i] = segment.type == SegmentType.LITERAL ? segment.raw : resolve(segment, resolver);
+            length += values[i].length();
+
+            // A color code would be split between this segment and the next one, so the segments can't be colored
+            // on their own.
+            if (i < segments.length - 1 && endsWithColorPrefix(values[i])) {
+                final StringBuilder builder = new StringBuilder(raw.length() + 16);
+                for (int j = 0; j <= i; j++) {
+                    builder.append(values[j]);
+                }
+                return StringUtils.color(renderRest(builder, i + 1, resolver));
+            }
+        }
+
+        final StringBuilder builder = new StringBuilder(length + 16);
+        for (int i = 0; i < segments.length; i++) {
+            builder.append(segments[i].type == SegmentType.LITERAL ? segments[i].colored : StringUtils.color(values[i]));
+        }
+        return builder.toString();
+    }
+
+    private @NotNull String renderRest(final @NotNull StringBuilder builder, final int from, final @NotNull Resolver resolver) {
+        for (int i = from; i < segments.length; i++) {
+            builder.append(segments[i].type == SegmentType.LITERAL ? segments[i].raw : resolve(segments[i], resolver));
+        }
+        return builder.toString();
+    }
+
+    private static boolean endsWithColorPrefix(final @NotNull String value) {
+        // '&' followed by a color character, or '&#' followed by up to 6 hex digits.
+        final int ampersand = value.lastIndexOf('&');
+        return ampersand != -1 && ampersand >= value.length() - 7;
+    }
+
+    private static @NotNull String resolve(final @NotNull Segment segment, final @NotNull Resolver resolver) {
+        switch (segment.type) {
+            case PLACEHOLDER: {
+                final String value = resolver.placeholder(segment.raw);
+                if (!resolver.parsePlaceholdersAfterArguments() && value.indexOf('{') != -1) {
+                    return resolver.replaceArguments(value);
+                }
+                return value;
+            }
+            case ARGUMENT: {
+                final String value = resolver.argument(segment.raw);
+                if (value == null) {
+                    return '{' + segment.raw + '}';
+                }
+                if (resolver.parsePlaceholdersAfterArguments() && value.indexOf('%') != -1) {
+                    return resolver.replacePlaceholders(value);
+                }
+                return value;
+            }
+            case LITERAL:
+            default:
+                return segment.raw;
+        }
+    }
+
+    /**
+     * Create a resolver that renders templates the same way as
+     * {@link StringUtils#replacePlaceholdersAndArguments(String, Map, Player, boolean, boolean)}.
+     *
+     * @param arguments                        the arguments to replace, can be null
+     * @param player                           the player to parse placeholders for. If null, placeholders are not parsed
+     * @param parsePlaceholdersInsideArguments true if placeholders inside argument values should be parsed
+     * @param parsePlaceholdersAfterArguments  true if placeholders should be parsed after arguments are replaced
+     * @return the resolver
+     */
+    public static @NotNull Resolver resolver(final @Nullable Map<String, String> arguments, final @Nullable Player player,
+                                             final boolean parsePlaceholdersInsideArguments,
+                                             final boolean parsePlaceholdersAfterArguments) {
+        return new Resolver() {
+            @Override
+            public @NotNull String placeholder(final @NotNull String placeholder) {
+                return player == null ? placeholder : StringUtils.replacePlaceholders(placeholder, player);
+            }
+
+            @Override
+            public @Nullable String argument(final @NotNull String name) {
+                final String value = arguments == null ? null : arguments.get(name);
+                if (value == null || player == null || !parsePlaceholdersInsideArguments) {
+                    return value;
+                }
+                return StringUtils.replacePlaceholders(value, player);
+            }
+
+            @Override
+            public boolean parsePlaceholdersAfterArguments() {
+                return parsePlaceholdersAfterArguments;
+            }
+
+            @Override
+            public @NotNull String replacePlaceholders(final @NotNull String input) {
+                return player == null ? input : StringUtils.replacePlaceholders(input, player);
+            }
+
+            @Override
+            public @NotNull String replaceArguments(final @NotNull String input) {
+                return StringUtils.replaceArguments(input, arguments, player, parsePlaceholdersInsideArguments);
+            }
+
+            @Override
+            public @NotNull String replacePlaceholdersAndArguments(final @NotNull String input) {
+                return StringUtils.replacePlaceholdersAndArguments(input, arguments, player,
+                        parsePlaceholdersInsideArguments, parsePlaceholdersAfterArguments);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return raw;
+    }
+
+    /**
+     * Resolves the arguments and placeholders of a {@link StringTemplate}.
+     */
+    public interface Resolver {
+
+        /**
+         * @param placeholder a single placeholder, including its surrounding percent signs
+         * @return the value of the placeholder
+         */
+        @NotNull String placeholder(@NotNull String placeholder);
+
+        /**
+         * @param name the name of the argument, without the surrounding braces
+         * @return the value of the argument, or null if the argument has no value
+         */
+        @Nullable String argument(@NotNull String name);
+
+        boolean parsePlaceholdersAfterArguments();
+
+        @NotNull String replacePlaceholders(@NotNull String input);
+
+        @NotNull String replaceArguments(@NotNull String input);
+
+        @NotNull String replacePlaceholdersAndArguments(@NotNull String input);
+    }
+
+    private enum SegmentType {
+        LITERAL,
+        ARGUMENT,
+        PLACEHOLDER
+    }
+
+    private static final class Segment {
+        private final SegmentType type;
+        // The literal text, the name of the argument or the full placeholder.
+        private final String raw;
+        private final String colored;
+
+        private Segment(final @NotNull SegmentType type, final @NotNull String raw, final @Nullable String colored) {
+            this.type = type;
+            this.raw = raw;
+            this.colored = colored;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.extendedclip.deluxemenus.utils;
 
 import java.util.Map;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -58,6 +59,72 @@ public class StringUtils {
         return PlaceholderAPI.setPlaceholders(player, input);
     }
 
+    /**
+     * Replaces each placeholder in the input with the value returned by the resolver. Placeholders are found the same
+     * way PlaceholderAPI finds them, so resolving each of them on its own with PlaceholderAPI gives the same result as
+     * {@link #replacePlaceholders(String, Player)}.
+     *
+     * @param input    The string in which to replace the placeholders.
+     * @param resolver The function that resolves a single placeholder, including its surrounding percent signs.
+     * @return The string with the placeholders replaced.
+     */
+    @NotNull
+    public static String replacePlaceholders(final @NotNull String input, final @NotNull Function<String, String> resolver) {
+        final int first = input.indexOf('%');
+        if (first == -1) {
+            return input;
+        }
+
+        final int length = input.length();
+        final StringBuilder builder = new StringBuilder(length);
+        builder.append(input, 0, first);
+
+        int i = first;
+        while (i < length) {
+            final char c = input.charAt(i);
+            if (c != '%' || i + 1 >= length) {
+                builder.append(c);
+                i++;
+                continue;
+            }
+
+            boolean identified = false;
+            boolean closed = false;
+            boolean hadSpace = false;
+            int end = i + 1;
+            for (; end < length; end++) {
+                final char p = input.charAt(end);
+                if (p == ' ' && !identified) {
+                    hadSpace = true;
+                    break;
+                }
+                if (p == '%') {
+                    closed = true;
+                    break;
+                }
+                if (p == '_') {
+                    identified = true;
+                }
+            }
+
+            if (hadSpace) {
+                builder.append(input, i, end + 1);
+                i = end + 1;
+                continue;
+            }
+
+            if (!closed) {
+                builder.append(input, i, length);
+                break;
+            }
+
+            builder.append(resolver.apply(input.substring(i, end + 1)));
+            i = end + 1;
+        }
+
+        return builder.toString();
+    }
+
     @NotNull
     public static String replaceArguments(@NotNull String input, final @Nullable Map<String, String> arguments,
                                           final @Nullable Player player, boolean parsePlaceholdersInsideArguments) {
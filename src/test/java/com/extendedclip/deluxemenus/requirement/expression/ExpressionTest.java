@@ -0,0 +1,187 @@
+package com.extendedclip.deluxemenus.requirement.expression;
+
+import com.extendedclip.deluxemenus.requirement.InputResultRequirement;
+import com.extendedclip.deluxemenus.requirement.RequirementType;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.openjdk.nashorn.api.scripting.NashornScriptEngineFactory;
+
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class ExpressionTest {
+
+    // Values placeholders commonly return, and values the comparison requirements do not read as numbers.
+    private static final String[] VALUES = {
+            "10", "9", "10.0", "100", "-3.5", "0", "1e3", "5d", "", " 10", "10 ", "0x10", "Infinity", "NaN", "abc",
+            "true", "false"
+    };
+
+    private static final String[][] NUMERIC_OPERATORS = {
+            {">", "GREATER_THAN"},
+            {">=", "GREATER_THAN_EQUAL_TO"},
+            {"<", "LESS_THAN"},
+            {"<=", "LESS_THAN_EQUAL_TO"},
+    };
+
+    private static final ScriptEngine NASHORN = new NashornScriptEngineFactory().getScriptEngine();
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', quoteCharacter = '"', value = {
+            "%a% <= 5        |       | | false",
+            "%a% >= 0        |       | | false",
+            "'%a%' >= '10'   | 9     | | false",
+            "'%a%' >= '10'   | 100   | | true",
+            "%a% == 16       | 0x10  | | false",
+            "%a% > 0         | abc   | | false",
+            "%a% != 0        | abc   | | false",
+            "'%a%' == 'VIP'  | vip   | | false",
+            "'%a%' == 'vip'  | vip   | | true",
+            "%a% == %b%      | 5     | 5.0 | true",
+            "'%a%' == '%b%'  | 5     | 5.0 | false",
+            "'%a%' != '%b%'  | 5     | 5.0 | true",
+            "%a% == %b%      | abc   | abc | true",
+            "%a% == 'true'   | true  | | true",
+            "%a% < 10 && %b% | 9     | true | true",
+    })
+    void nativeExpressions(final String expression, final String a, final String b, final boolean expected)
+            throws ExpressionException {
+        assertEquals(expected, evaluate(expression, false, orEmpty(a), orEmpty(b)));
+    }
+
+    @ParameterizedTest(name = "{0} {1} {2}")
+    @MethodSource("comparisons")
+    void nativeComparisonsMatchComparisonRequirements(final String operator, final RequirementType type,
+                                                      final String input, final String result)
+            throws ExpressionException {
+        final boolean expected = InputResultRequirement.matches(type, input, result, null);
+
+        assertEquals(expected, evaluate("%a% " + operator + " %b%", false, input, result));
+        assertEquals(expected, evaluate("'%a%' " + operator + " '%b%'", false, input, result));
+    }
+
+    @ParameterizedTest(name = "{0}, {1}")
+    @MethodSource("pairs")
+    void nativeEqualityMatchesComparisonRequirements(final String input, final String result)
+            throws ExpressionException {
+        assertEquals(InputResultRequirement.matches(RequirementType.STRING_EQUALS, input, result, null),
+                evaluate("'%a%' == '%b%'", false, input, result));
+        assertEquals(InputResultRequirement.matches(RequirementType.STRING_DOES_NOT_EQUAL, input, result, null),
+                evaluate("'%a%' != '%b%'", false, input, result));
+
+        // Outside of a string, two values that are not numbers are compared as strings.
+        final boolean numeric = isNumber(input) || isNumber(result);
+        assertEquals(InputResultRequirement.matches(numeric ? RequirementType.EQUAL_TO : RequirementType.STRING_EQUALS,
+                input, result, null), evaluate("%a% == %b%", false, input, result));
+        assertEquals(InputResultRequirement.matches(numeric ? RequirementType.NOT_EQUAL_TO
+                        : RequirementType.STRING_DOES_NOT_EQUAL, input, result, null),
+                evaluate("%a% != %b%", false, input, result));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', quoteCharacter = '"', value = {
+            "%a% > 5",
+            "%a% >= %b%",
+            "%a% == %b%",
+            "%a% != %b%",
+            "%a% === %b%",
+            "'%a%' == '%b%'",
+            "'%a%' >= '%b%'",
+            "'%a%' < %b%",
+            "%a% + 1 > %b%",
+            "'%a%' + %b%",
+            "%a% * 2 - %b% / 4",
+            "%a% % 3 == 1",
+            "!%a% || %b%",
+            "%a% && %b%",
+            "-(%a%) < +%b%",
+    })
+    void translatedJavascriptMatchesJavascript(final String expression) throws ExpressionException, ScriptException {
+        for (final String a : VALUES) {
+            for (final String b : VALUES) {
+                final Object translated;
+                try {
+                    translated = evaluate(expression, true, a, b);
+                } catch (final ExpressionException exception) {
+                    // Javascript would read the value as code, the javascript requirement evaluates it instead.
+                    continue;
+                }
+
+                final Object javascript = NASHORN.eval(expression.replace("%a%", a).replace("%b%", b));
+                assertEquals(normalize(javascript), normalize(translated), expression + " with " + a + ", " + b);
+            }
+        }
+    }
+
+    @Test
+    void translatedJavascriptRejectsCode() {
+        assertThrows(ExpressionException.class, () -> evaluate("%a% == 1", true, "abc"));
+        assertThrows(ExpressionException.class, () -> evaluate("%a% == 1", true, "0x10"));
+        assertThrows(ExpressionException.class, () -> evaluate("%a% == 1", true, ""));
+    }
+
+    static @NotNull Stream<Arguments> comparisons() {
+        final List<Arguments> arguments = new ArrayList<>();
+        for (final String[] operator : NUMERIC_OPERATORS) {
+            for (final String input : VALUES) {
+                for (final String result : VALUES) {
+                    arguments.add(Arguments.of(operator[0], RequirementType.valueOf(operator[1]), input, result));
+                }
+            }
+        }
+        return arguments.stream();
+    }
+
+    static @NotNull Stream<Arguments> pairs() {
+        final List<Arguments> arguments = new ArrayList<>();
+        for (final String input : VALUES) {
+            for (final String result : VALUES) {
+                arguments.add(Arguments.of(input, result));
+            }
+        }
+        return arguments.stream();
+    }
+
+    private static @NotNull Object evaluate(final @NotNull String expression, final boolean javascript,
+                                            final @NotNull String @NotNull ... values) throws ExpressionException {
+        final String source = expression
+                .replace("%a%", Expression.MARKER_START + "0" + Expression.MARKER_END)
+                .replace("%b%", Expression.MARKER_START + "1" + Expression.MARKER_END);
+        return Parser.parse(Lexer.tokenize(source, javascript)).evaluate(values, javascript);
+    }
+
+    private static boolean isNumber(final @NotNull String value) {
+        try {
+            Double.parseDouble(value);
+            return true;
+        } catch (final NumberFormatException exception) {
+            return false;
+        }
+    }
+
+    private static @NotNull String orEmpty(final String value) {
+        return value == null ? "" : value;
+    }
+
+    private static @NotNull Object normalize(final Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof Boolean || value instanceof String) {
+            return value;
+        }
+        fail("Unexpected result: " + value);
+        return value;
+    }
+}